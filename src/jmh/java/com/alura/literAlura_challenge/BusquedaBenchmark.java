@@ -0,0 +1,89 @@
+package com.alura.literAlura_challenge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda local con la consulta original (todas las coincidencias) frente a la búsqueda
+ * clasificada y paginada. Los índices trigram solo existen en PostgreSQL: con H2 ambas recorren
+ * la tabla y la diferencia es la cantidad de filas que se cargan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BusquedaBenchmark {
+
+    private static final int TAMANO_LOTE = 5000;
+
+    @Param({"10000", "100000", "1000000"})
+    int filas;
+
+    private ConfigurableApplicationContext contexto;
+    private LibroRepository libroRepository;
+
+    @Setup
+    public void cargarCatalogo() {
+        contexto = ContextoBenchmark.iniciar();
+        libroRepository = contexto.getBean(LibroRepository.class);
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        jdbc.update("DELETE FROM libros_autores");
+        jdbc.update("DELETE FROM libros");
+        jdbc.update("DELETE FROM autores");
+
+        // Inserción directa por JDBC: cargar un millón de filas con JPA tardaría más que el benchmark
+        List<Object[]> autores = new ArrayList<>();
+        for (int a = 0; a < DatosSinteticos.TOTAL_AUTORES; a++) {
+            autores.add(new Object[] {a + 1, DatosSinteticos.autor(a), DatosSinteticos.anioNacimiento(a),
+                DatosSinteticos.anioNacimiento(a) + 60});
+        }
+        jdbc.batchUpdate("INSERT INTO autores (id, nombre, anio_nacimiento, anio_fallecimiento) VALUES (?, ?, ?, ?)", autores);
+
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        for (int desde = 0; desde < filas; desde += TAMANO_LOTE) {
+            List<Object[]> libros = new ArrayList<>(TAMANO_LOTE);
+            List<Object[]> relaciones = new ArrayList<>(TAMANO_LOTE);
+            for (int n = desde; n < Math.min(desde + TAMANO_LOTE, filas); n++) {
+                libros.add(new Object[] {n + 1, DatosSinteticos.titulo(n), DatosSinteticos.descargas(n),
+                    DatosSinteticos.idioma(n), ahora});
+                relaciones.add(new Object[] {n + 1, n % DatosSinteticos.TOTAL_AUTORES + 1, 0});
+            }
+            jdbc.batchUpdate("INSERT INTO libros (id, titulo, descargas, idioma, actualizado_en) VALUES (?, ?, ?, ?, ?)", libros);
+            jdbc.batchUpdate("INSERT INTO libros_autores (libro_id, autor_id, posicion) VALUES (?, ?, ?)", relaciones);
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Libro> buscarPorTituloOAutor() {
+        return libroRepository.buscarPorTituloOAutor(DatosSinteticos.TERMINO_RARO);
+    }
+
+    @Benchmark
+    public List<Libro> buscarClasificados() {
+        return libroRepository.buscarClasificados(DatosSinteticos.TERMINO_RARO, 0, LibroService.TAMANO_PAGINA_BUSQUEDA);
+    }
+}
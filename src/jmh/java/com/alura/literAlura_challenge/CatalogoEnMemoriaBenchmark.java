@@ -0,0 +1,71 @@
+package com.alura.literAlura_challenge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtros del catálogo en memoria, sin BD: tiempo por consulta en microsegundos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogoEnMemoriaBenchmark {
+
+    @Param({"100000"})
+    int libros;
+
+    private CatalogoEnMemoria catalogo;
+
+    @Setup
+    public void cargar() {
+        List<Autor> autores = new ArrayList<>();
+        for (int a = 0; a < DatosSinteticos.TOTAL_AUTORES; a++) {
+            Autor autor = new Autor(DatosSinteticos.autor(a), DatosSinteticos.anioNacimiento(a), DatosSinteticos.anioNacimiento(a) + 60);
+            autor.setId((long) a + 1);
+            autores.add(autor);
+        }
+        List<Libro> lote = new ArrayList<>();
+        for (int n = 0; n < libros; n++) {
+            Libro libro = new Libro();
+            libro.setId((long) n + 1);
+            libro.setTitulo(DatosSinteticos.titulo(n));
+            libro.setIdioma(DatosSinteticos.idioma(n));
+            libro.setNumeroDescargas(DatosSinteticos.descargas(n));
+            libro.setAutores(List.of(autores.get(n % DatosSinteticos.TOTAL_AUTORES)));
+            lote.add(libro);
+        }
+        catalogo = new CatalogoEnMemoria();
+        catalogo.agregar(lote);
+    }
+
+    // El 10 % de los libros
+    @Benchmark
+    public List<LibroResumenDTO> librosPorIdioma() {
+        return catalogo.librosPorIdioma("fr");
+    }
+
+    @Benchmark
+    public List<AutorDTO> autoresVivosEn() {
+        return catalogo.autoresVivosEn(1650);
+    }
+
+    @Benchmark
+    public PaginaLibros pagina() {
+        return catalogo.pagina(libros / 2, 100);
+    }
+}
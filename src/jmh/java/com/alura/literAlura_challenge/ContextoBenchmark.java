@@ -0,0 +1,27 @@
+package com.alura.literAlura_challenge;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Levanta la aplicación sin servidor web ni menú. Con el classpath de pruebas usa la BD H2 en memoria
+ * de src/test/resources/config; para medir contra PostgreSQL se pasan las propiedades al fork de JMH,
+ * por ejemplo -jvmArgsAppend "-Dspring.datasource.url=jdbc:postgresql://localhost/bench -Dspring.sql.init.platform=postgresql ..."
+ */
+final class ContextoBenchmark {
+
+    private ContextoBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar() {
+        return new SpringApplicationBuilder(LiterAluraChallengeApplication.class)
+            .web(WebApplicationType.NONE)
+            .logStartupInfo(false)
+            // Sin caché de segundo nivel: los benchmarks miden las consultas a la BD, no los aciertos de la caché
+            .properties("spring.main.banner-mode=off", "logging.level.root=warn",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false")
+            .run();
+    }
+}
@@ -0,0 +1,129 @@
+package com.alura.literAlura_challenge;
+
+import com.alura.literAlura_challenge.LibroGutendex.AutorGutendex;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catálogo sintético y determinista para los benchmarks: el libro n siempre tiene los mismos datos,
+ * así los resultados son comparables entre ejecuciones sin depender de la API real
+ */
+final class DatosSinteticos {
+
+    static final int TOTAL_AUTORES = 5000;
+    // Uno de cada RARIDAD_TERMINO libros contiene TERMINO_RARO en el título
+    static final String TERMINO_RARO = "quijote";
+    static final int RARIDAD_TERMINO = 1000;
+
+    private static final String[] IDIOMAS = {"en", "en", "en", "fr", "de", "es", "fi", "nl", "it", "pt"};
+    private static final String[] TEMAS = {"Fiction", "Poetry", "History", "Science", "Drama", "Philosophy"};
+    private static final String[] SILABAS = {"ba", "ce", "di", "lo", "mu", "na", "pe", "ri", "so", "ta", "ve", "za",
+        "cor", "den", "gal", "mar", "nos", "ter", "vin", "bra"};
+    // Vocabulario de 8000 palabras de dos y tres sílabas para títulos con palabras repetidas entre libros
+    private static final String[] VOCABULARIO = new String[SILABAS.length * SILABAS.length * (1 + SILABAS.length)];
+
+    static {
+        int i = 0;
+        for (String primera : SILABAS) {
+            for (String segunda : SILABAS) {
+                VOCABULARIO[i++] = primera + segunda;
+                for (String tercera : SILABAS) {
+                    VOCABULARIO[i++] = primera + segunda + tercera;
+                }
+            }
+        }
+    }
+
+    private DatosSinteticos() {
+    }
+
+    static String titulo(int n) {
+        return n % RARIDAD_TERMINO == 0 ? "Don Quijote, volumen " + n : "Libro sintetico " + n;
+    }
+
+    /**
+     * Título de 2 a 5 palabras del vocabulario; las palabras se reparten con cola larga como en un catálogo real
+     */
+    static String tituloConVocabulario(int n) {
+        long semilla = n * 0x9E3779B97F4A7C15L;
+        int cantidad = 2 + (int) Long.remainderUnsigned(semilla >>> 7, 4);
+        StringBuilder titulo = new StringBuilder();
+        for (int i = 0; i < cantidad; i++) {
+            semilla = semilla * 6364136223846793005L + 1442695040888963407L;
+            double azar = (semilla >>> 11) / (double) (1L << 53);
+            String palabra = VOCABULARIO[(int) (VOCABULARIO.length * azar * azar)];
+            if (i > 0) {
+                titulo.append(' ');
+            }
+            titulo.append(Character.toUpperCase(palabra.charAt(0))).append(palabra, 1, palabra.length());
+        }
+        return titulo.toString();
+    }
+
+    static String autor(int n) {
+        return "Autor sintetico " + (n % TOTAL_AUTORES);
+    }
+
+    static int anioNacimiento(int n) {
+        return 1500 + (n % TOTAL_AUTORES) % 400;
+    }
+
+    static int descargas(int n) {
+        // Distribución con cola larga, como la del catálogo real
+        return (int) (1_000_000L / (1 + n % 10_000));
+    }
+
+    static String idioma(int n) {
+        return IDIOMAS[n % IDIOMAS.length];
+    }
+
+    /**
+     * Página de la API con los libros [desde, desde + cantidad) tal como la lee la aplicación
+     */
+    static PaginaGutendex respuesta(int cantidad, int desde) {
+        List<LibroGutendex> libros = new ArrayList<>(cantidad);
+        for (int n = desde; n < desde + cantidad; n++) {
+            libros.add(new LibroGutendex(n, titulo(n), List.of(new AutorGutendex(autor(n), anioNacimiento(n), anioNacimiento(n) + 60)),
+                descargas(n), idioma(n)));
+        }
+        return new PaginaGutendex(desde + cantidad, null, libros);
+    }
+
+    /**
+     * La misma página como la envía Gutendex, con los campos que la aplicación ignora
+     * (subjects, formats, etc.) para que la deserialización tenga que saltarlos
+     */
+    static Map<String, Object> respuestaJson(int cantidad, int desde) {
+        List<Map<String, Object>> resultados = new ArrayList<>(cantidad);
+        for (int n = desde; n < desde + cantidad; n++) {
+            Map<String, Object> libro = new LinkedHashMap<>();
+            libro.put("id", n);
+            libro.put("title", titulo(n));
+            libro.put("authors", List.of(Map.of("name", autor(n), "birth_year", anioNacimiento(n),
+                "death_year", anioNacimiento(n) + 60)));
+            libro.put("summaries", List.of("Resumen sintetico del libro " + n + ". ".repeat(8)));
+            libro.put("translators", List.of());
+            libro.put("subjects", List.of(TEMAS[n % TEMAS.length] + " -- Sintetico", TEMAS[(n + 1) % TEMAS.length]));
+            libro.put("bookshelves", List.of("Category: " + TEMAS[n % TEMAS.length]));
+            libro.put("languages", List.of(idioma(n)));
+            libro.put("copyright", false);
+            libro.put("media_type", "Text");
+            Map<String, String> formatos = new LinkedHashMap<>();
+            formatos.put("text/html", "https://www.gutenberg.org/ebooks/" + n + ".html.images");
+            formatos.put("application/epub+zip", "https://www.gutenberg.org/ebooks/" + n + ".epub3.images");
+            formatos.put("text/plain; charset=us-ascii", "https://www.gutenberg.org/ebooks/" + n + ".txt.utf-8");
+            formatos.put("image/jpeg", "https://www.gutenberg.org/cache/epub/" + n + "/pg" + n + ".cover.medium.jpg");
+            libro.put("formats", formatos);
+            libro.put("download_count", descargas(n));
+            resultados.add(libro);
+        }
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("count", desde + cantidad);
+        respuesta.put("next", "https://gutendex.com/books/?page=2");
+        respuesta.put("previous", null);
+        respuesta.put("results", resultados);
+        return respuesta;
+    }
+}
@@ -0,0 +1,78 @@
+package com.alura.literAlura_challenge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de respuestas de Gutendex con la misma configuración de Jackson que usa Spring Boot:
+ * con el parser de streaming que usa la aplicación, y con databind a POJOs como referencia
+ * (la forma en que se leían antes). Con -prof gc se comparan los bytes asignados por página
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializacionGutendexBenchmark {
+
+    // 32 es una página real de la API; 10000 es una respuesta grande
+    @Param({"32", "10000"})
+    int libros;
+
+    private ObjectMapper objectMapper;
+    private LectorGutendex lector;
+    private byte[] json;
+
+    @Setup
+    public void preparar() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        lector = new LectorGutendex(objectMapper.getFactory());
+        json = objectMapper.writeValueAsBytes(DatosSinteticos.respuestaJson(libros, 0));
+    }
+
+    @Benchmark
+    public PaginaGutendex streaming() throws IOException {
+        return lector.leer(json);
+    }
+
+    @Benchmark
+    public RespuestaDatabind databind() throws IOException {
+        return objectMapper.readValue(json, RespuestaDatabind.class);
+    }
+
+    // Grafo de objetos que armaba la lectura con databind
+    public static class RespuestaDatabind {
+        public Integer count;
+        public String next;
+        public List<LibroDatabind> results;
+    }
+
+    public static class LibroDatabind {
+        public Integer id;
+        public String title;
+        public List<AutorDatabind> authors;
+        public Integer download_count;
+        public List<String> languages;
+    }
+
+    public static class AutorDatabind {
+        public String name;
+        public Integer birth_year;
+        public Integer death_year;
+    }
+}
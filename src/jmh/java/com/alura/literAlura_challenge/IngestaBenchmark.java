@@ -0,0 +1,80 @@
+package com.alura.literAlura_challenge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guardado de páginas de la API en la BD embebida: cada invocación guarda una página de libros nuevos
+ * cuyos autores se repiten con los ya registrados, como pasa al cosechar el catálogo.
+ * {@code guardarLibroPorLibro} reproduce el guardado anterior (una consulta de existencia y un save,
+ * cada uno en su propia transacción, por libro) sobre los mismos datos, como referencia
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IngestaBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private LibroService libroService;
+    private LibroRepository libroRepository;
+    private IngestaLibrosService ingestaLibrosService;
+    private TransactionTemplate transactionTemplate;
+    private int siguienteLibro;
+    private List<LibroGutendex> pagina;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        libroService = contexto.getBean(LibroService.class);
+        libroRepository = contexto.getBean(LibroRepository.class);
+        ingestaLibrosService = contexto.getBean(IngestaLibrosService.class);
+        transactionTemplate = contexto.getBean(TransactionTemplate.class);
+    }
+
+    // La página se genera fuera de la medición; su costo es mínimo frente a una transacción
+    @Setup(Level.Invocation)
+    public void siguientePagina() {
+        pagina = DatosSinteticos.respuesta(LibroService.TAMANO_PAGINA_BUSQUEDA, siguienteLibro).libros();
+        siguienteLibro += LibroService.TAMANO_PAGINA_BUSQUEDA;
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public void guardarLibrosEnBD() {
+        libroService.guardarLibrosEnBD(pagina);
+    }
+
+    @Benchmark
+    public void guardarLibroPorLibro() {
+        for (Libro libro : libroService.convertirAEntidades(pagina)) {
+            if (libroRepository.findTitulosExistentes(List.of(libro.getTitulo())).isEmpty()) {
+                // Los autores ahora son una tabla aparte: se resuelven junto con el save del libro
+                transactionTemplate.executeWithoutResult(estado -> {
+                    ingestaLibrosService.resolverAutores(List.of(libro));
+                    libroRepository.save(libro);
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.alura.literAlura_challenge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de una página de la API a DTOs y a entidades; con -prof gc se ven los bytes asignados por libro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeoLibrosBenchmark {
+
+    private LibroService libroService;
+    private List<LibroGutendex> pagina;
+
+    @Setup
+    public void preparar() {
+        // La conversión no usa ninguna dependencia del servicio
+        libroService = new LibroService();
+        pagina = DatosSinteticos.respuesta(LibroService.TAMANO_PAGINA_BUSQUEDA, 0).libros();
+    }
+
+    @Benchmark
+    public void aLibroDTO(Blackhole blackhole) {
+        for (LibroGutendex libro : pagina) {
+            blackhole.consume(libro.aLibroDTO());
+        }
+    }
+
+    @Benchmark
+    public void convertirAEntidades(Blackhole blackhole) {
+        blackhole.consume(libroService.convertirAEntidades(pagina));
+    }
+}
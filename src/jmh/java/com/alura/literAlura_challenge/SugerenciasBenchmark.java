@@ -0,0 +1,71 @@
+package com.alura.literAlura_challenge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocompletado sobre un corpus de títulos sintéticos, sin BD. SampleTime reporta los percentiles
+ * (p0.99 es el objetivo: menos de 1 ms por consulta)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SugerenciasBenchmark {
+
+    @Param({"1000000"})
+    int titulos;
+
+    private IndiceSugerencias indice;
+    private String prefijoCorto;
+    private String conErrorDeTipeo;
+    private String variasPalabras;
+
+    @Setup
+    public void cargar() {
+        List<Libro> lote = new ArrayList<>(titulos);
+        for (int n = 0; n < titulos; n++) {
+            Libro libro = new Libro();
+            libro.setTitulo(DatosSinteticos.tituloConVocabulario(n));
+            libro.setNumeroDescargas(DatosSinteticos.descargas(n));
+            lote.add(libro);
+        }
+        indice = new IndiceSugerencias();
+        indice.agregar(lote);
+        String[] palabras = DatosSinteticos.tituloConVocabulario(titulos / 3).split(" ");
+        prefijoCorto = palabras[0].substring(0, 2);
+        // Dos letras vecinas intercambiadas en la primera palabra
+        String primera = palabras[0];
+        conErrorDeTipeo = primera.charAt(1) + "" + primera.charAt(0) + primera.substring(2);
+        variasPalabras = palabras[0] + " " + palabras[1].substring(0, Math.min(3, palabras[1].length()));
+    }
+
+    @Benchmark
+    public List<IndiceSugerencias.Sugerencia> prefijoCorto() {
+        return indice.sugerir(prefijoCorto, 10);
+    }
+
+    @Benchmark
+    public List<IndiceSugerencias.Sugerencia> conErrorDeTipeo() {
+        return indice.sugerir(conErrorDeTipeo, 10);
+    }
+
+    @Benchmark
+    public List<IndiceSugerencias.Sugerencia> variasPalabras() {
+        return indice.sugerir(variasPalabras, 10);
+    }
+}
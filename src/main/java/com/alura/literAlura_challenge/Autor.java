@@ -0,0 +1,74 @@
+package com.alura.literAlura_challenge;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivel.REGION_AUTORES)
+@Table(name = "autores", indexes = {
+    @Index(name = "idx_autores_vida", columnList = "anio_nacimiento, anio_fallecimiento")
+})
+public class Autor {
+    static final int LARGO_NOMBRE = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "autores_seq")
+    @SequenceGenerator(name = "autores_seq", sequenceName = "autores_seq", allocationSize = 50)
+    private Long id;
+    @Column(nullable = false, unique = true, length = LARGO_NOMBRE)
+    private String nombre;
+    private Integer anioNacimiento;
+    private Integer anioFallecimiento;
+
+    public Autor() {
+    }
+
+    public Autor(String nombre, Integer anioNacimiento, Integer anioFallecimiento) {
+        this.nombre = nombre;
+        this.anioNacimiento = anioNacimiento;
+        this.anioFallecimiento = anioFallecimiento;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public Integer getAnioNacimiento() {
+        return anioNacimiento;
+    }
+
+    public Integer getAnioFallecimiento() {
+        return anioFallecimiento;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public void setAnioNacimiento(Integer anioNacimiento) {
+        this.anioNacimiento = anioNacimiento;
+    }
+
+    public void setAnioFallecimiento(Integer anioFallecimiento) {
+        this.anioFallecimiento = anioFallecimiento;
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.alura.literAlura_challenge;
+
+import java.util.List;
+
+public record AutorDTO(
+    Long id,
+    String nombre,
+    Integer anioNacimiento,
+    Integer anioFallecimiento,
+    List<String> titulos
+    ) {
+    // Usado por las consultas JPQL, que no traen los títulos
+    public AutorDTO(Long id, String nombre, Integer anioNacimiento, Integer anioFallecimiento) {
+        this(id, nombre, anioNacimiento, anioFallecimiento, List.of());
+    }
+
+    public AutorDTO conTitulos(List<String> titulos) {
+        return new AutorDTO(id, nombre, anioNacimiento, anioFallecimiento, titulos);
+    }
+}
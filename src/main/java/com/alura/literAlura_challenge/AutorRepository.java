@@ -0,0 +1,32 @@
+package com.alura.literAlura_challenge;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AutorRepository extends JpaRepository<Autor, Long> {
+
+    // Resolver en una sola consulta cuáles autores de un lote ya están registrados
+    List<Autor> findByNombreIn(Collection<String> nombres);
+
+    // Nombres en orden alfabético, paginados por clave: la página siguiente empieza después del último nombre recibido
+    @Query("SELECT a.nombre FROM Autor a WHERE a.nombre > :despuesDe ORDER BY a.nombre")
+    List<String> listarNombres(@Param("despuesDe") String despuesDe, Limit limite);
+
+    @Query("SELECT new com.alura.literAlura_challenge.AutorDTO(a.id, a.nombre, a.anioNacimiento, a.anioFallecimiento)"
+        + " FROM Autor a WHERE a.anioNacimiento <= :anio AND a.anioFallecimiento >= :anio AND a.nombre > :despuesDe"
+        + " ORDER BY a.nombre")
+    List<AutorDTO> listarVivosEnAnio(@Param("anio") int anio, @Param("despuesDe") String despuesDe, Limit limite);
+
+    // Agregados completos para reconstruir las estadísticas: [año, autores]
+    @Query("SELECT a.anioNacimiento, COUNT(a) FROM Autor a WHERE a.anioNacimiento IS NOT NULL GROUP BY a.anioNacimiento")
+    List<Object[]> contarPorAnioNacimiento();
+
+    @Query("SELECT a.anioFallecimiento, COUNT(a) FROM Autor a WHERE a.anioFallecimiento IS NOT NULL GROUP BY a.anioFallecimiento")
+    List<Object[]> contarPorAnioFallecimiento();
+}
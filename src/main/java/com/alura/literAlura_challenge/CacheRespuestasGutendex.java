@@ -0,0 +1,196 @@
+package com.alura.literAlura_challenge;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché en memoria de las búsquedas enviadas a la API de Gutenberg.
+ * Tiene un tamaño máximo (se desaloja la entrada usada hace más tiempo), una vigencia por entrada
+ * y agrupa las búsquedas idénticas simultáneas en una sola llamada HTTP.
+ */
+@Component
+public class CacheRespuestasGutendex implements MeterBinder {
+
+    private final int tamanoMaximo;
+    private final long ttlNanos;
+    private final LongSupplier reloj;
+
+    // LinkedHashMap en orden de acceso: la primera entrada es la menos usada recientemente
+    private final LinkedHashMap<String, Entrada> entradas;
+    private final Map<String, CompletableFuture<List<LibroDTO>>> enVuelo = new ConcurrentHashMap<>();
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+    private final AtomicLong expiraciones = new AtomicLong();
+
+    @Autowired
+    public CacheRespuestasGutendex(@Value("${literalura.cache.gutendex.tamano-maximo:500}") int tamanoMaximo,
+                                   @Value("${literalura.cache.gutendex.ttl:10m}") Duration ttl) {
+        this(tamanoMaximo, ttl, System::nanoTime);
+    }
+
+    CacheRespuestasGutendex(int tamanoMaximo, Duration ttl, LongSupplier reloj) {
+        this.tamanoMaximo = tamanoMaximo;
+        this.ttlNanos = ttl.toNanos();
+        this.reloj = reloj;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> masAntigua) {
+                if (size() > CacheRespuestasGutendex.this.tamanoMaximo) {
+                    desalojos.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve los libros guardados para el término o los obtiene con el cargador.
+     * Si otra búsqueda idéntica ya está en curso, espera su resultado en lugar de repetir la llamada.
+     * Los errores del cargador se propagan y no se guardan en la caché
+     * @param termino Término de búsqueda tal como lo escribió el usuario
+     * @param cargador Función que consulta la API con el término normalizado
+     */
+    public List<LibroDTO> obtener(String termino, Function<String, List<LibroDTO>> cargador) {
+        CompletableFuture<List<LibroDTO>> resultado = obtenerAsync(termino, clave -> {
+            try {
+                return CompletableFuture.completedFuture(cargador.apply(clave));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtener}: el cargador devuelve un futuro y quienes piden
+     * el mismo término mientras está en curso reciben ese mismo futuro
+     */
+    public CompletableFuture<List<LibroDTO>> obtenerAsync(String termino,
+                                                          Function<String, CompletableFuture<List<LibroDTO>>> cargador) {
+        String clave = normalizar(termino);
+        List<LibroDTO> guardados = buscarVigente(clave);
+        if (guardados != null) {
+            aciertos.incrementAndGet();
+            return CompletableFuture.completedFuture(guardados);
+        }
+        fallos.incrementAndGet();
+
+        CompletableFuture<List<LibroDTO>> nueva = new CompletableFuture<>();
+        CompletableFuture<List<LibroDTO>> existente = enVuelo.putIfAbsent(clave, nueva);
+        if (existente != null) {
+            return existente;
+        }
+
+        CompletableFuture<List<LibroDTO>> carga;
+        try {
+            carga = cargador.apply(clave);
+        } catch (RuntimeException e) {
+            carga = CompletableFuture.failedFuture(e);
+        }
+        carga.whenComplete((libros, error) -> {
+            if (error != null) {
+                enVuelo.remove(clave, nueva);
+                nueva.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+                return;
+            }
+            List<LibroDTO> copia = List.copyOf(libros);
+            // Guardar antes de quitar la carga en curso para que no haya un instante sin ninguna de las dos
+            guardar(clave, copia);
+            enVuelo.remove(clave, nueva);
+            nueva.complete(copia);
+        });
+        return nueva;
+    }
+
+    /**
+     * Normaliza el término para que las variantes de mayúsculas y espacios compartan entrada
+     */
+    static String normalizar(String termino) {
+        return termino == null ? "" : termino.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized void limpiar() {
+        entradas.clear();
+    }
+
+    public synchronized int tamano() {
+        return entradas.size();
+    }
+
+    public Estadisticas estadisticas() {
+        return new Estadisticas(tamano(), tamanoMaximo, aciertos.get(), fallos.get(), desalojos.get(), expiraciones.get());
+    }
+
+    private synchronized List<LibroDTO> buscarVigente(String clave) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada == null) {
+            return null;
+        }
+        if (reloj.getAsLong() - entrada.guardadaEn() > ttlNanos) {
+            entradas.remove(clave);
+            expiraciones.incrementAndGet();
+            return null;
+        }
+        return entrada.libros();
+    }
+
+    private synchronized void guardar(String clave, List<LibroDTO> libros) {
+        entradas.put(clave, new Entrada(libros, reloj.getAsLong()));
+    }
+
+    private record Entrada(List<LibroDTO> libros, long guardadaEn) {
+    }
+
+    /**
+     * Publica el tamaño y los contadores de la caché; Spring Boot registra automáticamente los MeterBinder
+     */
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        Gauge.builder("literalura.cache.gutendex.entradas", this, CacheRespuestasGutendex::tamano)
+            .description("Búsquedas guardadas en la caché")
+            .register(registro);
+        registrarContador(registro, "acierto", aciertos);
+        registrarContador(registro, "fallo", fallos);
+        registrarContador(registro, "desalojo", desalojos);
+        registrarContador(registro, "expiracion", expiraciones);
+    }
+
+    private static void registrarContador(MeterRegistry registro, String resultado, AtomicLong contador) {
+        FunctionCounter.builder("literalura.cache.gutendex.consultas", contador, AtomicLong::get)
+            .tag("resultado", resultado)
+            .register(registro);
+    }
+
+    /**
+     * Contadores de uso de la caché, útiles para ajustar su tamaño y vigencia
+     */
+    public record Estadisticas(int entradas, int tamanoMaximo, long aciertos, long fallos, long desalojos, long expiraciones) {
+    }
+}
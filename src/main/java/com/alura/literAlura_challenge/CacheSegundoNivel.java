@@ -0,0 +1,129 @@
+package com.alura.literAlura_challenge;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Caché de segundo nivel de Hibernate (JCache con Caffeine) para los libros, sus autores y los resultados
+ * de las consultas del catálogo marcadas como cacheables en {@link LibroRepository}.
+ * No tiene vigencia: Hibernate actualiza las entidades al confirmar cada transacción y descarta el resultado
+ * de una consulta si alguna de sus tablas se modificó después de guardarlo, así que cada lote de la ingesta
+ * invalida exactamente las consultas sobre las tablas que escribió. Los cambios hechos por fuera de Hibernate
+ * (SQL directo sobre la BD) no se ven hasta llamar a {@link #limpiar()}
+ */
+@Component
+public class CacheSegundoNivel implements HibernatePropertiesCustomizer, MeterBinder {
+
+    static final String REGION_LIBROS = "libros";
+    static final String REGION_AUTORES_DE_LIBRO = "libros.autores";
+    static final String REGION_AUTORES = "autores";
+
+    // Un proveedor propio por contexto: el CacheManager por defecto de JCache es compartido por toda la JVM
+    private final CachingProvider proveedor = new CaffeineCachingProvider();
+    private final CacheManager cacheManager;
+
+    // Se resuelve recién al leer las métricas: la fábrica de EntityManager depende de esta clase para crearse
+    @Autowired
+    private ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    @Autowired
+    public CacheSegundoNivel(@Value("${literalura.cache.segundo-nivel.libros:50000}") long maximoLibros,
+                             @Value("${literalura.cache.segundo-nivel.autores:20000}") long maximoAutores,
+                             @Value("${literalura.cache.segundo-nivel.consultas:1000}") long maximoConsultas) {
+        cacheManager = proveedor.getCacheManager();
+        crearRegion(REGION_LIBROS, maximoLibros);
+        crearRegion(REGION_AUTORES_DE_LIBRO, maximoLibros);
+        crearRegion(REGION_AUTORES, maximoAutores);
+        crearRegion(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, maximoConsultas);
+        // Una marca de tiempo por tabla: si se desalojara una, las consultas sobre esa tabla podrían leerse viejas
+        crearRegion(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0);
+    }
+
+    private void crearRegion(String nombre, long maximo) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        // Hibernate guarda copias desarmadas e inmutables de las entidades: no hace falta volver a copiarlas
+        configuracion.setStoreByValue(false);
+        if (maximo > 0) {
+            configuracion.setMaximumSize(OptionalLong.of(maximo));
+        }
+        cacheManager.createCache(nombre, configuracion);
+    }
+
+    @Override
+    public void customize(Map<String, Object> propiedades) {
+        propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    /**
+     * Descarta todas las entidades y consultas guardadas; solo hace falta si se modificó la BD por fuera de la aplicación
+     */
+    public void limpiar() {
+        sessionFactory().getCache().evictAllRegions();
+    }
+
+    @PreDestroy
+    void cerrar() {
+        cacheManager.close();
+        proveedor.close();
+    }
+
+    /**
+     * Publica los aciertos y fallos de la caché de entidades (libros, sus autores y los autores) y de la de consultas,
+     * con la tasa de aciertos de cada una. Los contadores son los de las estadísticas de Hibernate
+     */
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        registrarCache(registro, "entidades",
+            Statistics::getSecondLevelCacheHitCount, Statistics::getSecondLevelCacheMissCount);
+        registrarCache(registro, "consultas",
+            Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount);
+    }
+
+    private void registrarCache(MeterRegistry registro, String cache, ToLongFunction<Statistics> aciertos,
+                                ToLongFunction<Statistics> fallos) {
+        FunctionCounter.builder("literalura.cache.bd.consultas", this, c -> aciertos.applyAsLong(c.estadisticas()))
+            .tag("cache", cache)
+            .tag("resultado", "acierto")
+            .register(registro);
+        FunctionCounter.builder("literalura.cache.bd.consultas", this, c -> fallos.applyAsLong(c.estadisticas()))
+            .tag("cache", cache)
+            .tag("resultado", "fallo")
+            .register(registro);
+        Gauge.builder("literalura.cache.bd.tasa.aciertos", this, c -> {
+                Statistics estadisticas = c.estadisticas();
+                long total = aciertos.applyAsLong(estadisticas) + fallos.applyAsLong(estadisticas);
+                return total == 0 ? Double.NaN : (double) aciertos.applyAsLong(estadisticas) / total;
+            })
+            .description("Aciertos sobre el total de lecturas de la caché de segundo nivel")
+            .tag("cache", cache)
+            .register(registro);
+    }
+
+    Statistics estadisticas() {
+        return sessionFactory().getStatistics();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.getObject().unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,387 @@
+package com.alura.literAlura_challenge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Copia del catálogo en memoria, en columnas: un arreglo primitivo por dato, ordenados por id de libro,
+ * con autores e idiomas codificados como índices a un diccionario y los títulos en un único bloque UTF-8. Se carga una vez al arrancar y se
+ * mantiene al día con los {@link LibrosGuardadosEvent} de la ingesta, así los listados de
+ * {@link LibroService} no consultan la BD. Se activa con literalura.catalogo-memoria.habilitado=true
+ */
+@Component
+@ConditionalOnProperty(name = "literalura.catalogo-memoria.habilitado", havingValue = "true")
+public class CatalogoEnMemoria {
+    private static final Logger log = LoggerFactory.getLogger(CatalogoEnMemoria.class);
+
+    // Marca de dato ausente en las columnas de enteros
+    private static final int SIN_DATO = Integer.MIN_VALUE;
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private volatile boolean cargado;
+
+    // Columnas de libros: la posición i de cada arreglo es el libro i, en orden de id
+    private int cantidadLibros;
+    private long[] ids = new long[CAPACIDAD_INICIAL];
+    // Título del libro i: largosTitulo[i] bytes desde iniciosTitulo[i] en bytesTitulos (-1 si no tiene)
+    private int[] iniciosTitulo = new int[CAPACIDAD_INICIAL];
+    private int[] largosTitulo = new int[CAPACIDAD_INICIAL];
+    private byte[] bytesTitulos = new byte[CAPACIDAD_INICIAL * 32];
+    private int bytesTitulosUsados;
+    private short[] idiomas = new short[CAPACIDAD_INICIAL];
+    private int[] descargas = new int[CAPACIDAD_INICIAL];
+    private int[] autoresPrincipales = new int[CAPACIDAD_INICIAL];
+    // Solo los libros con más de un autor tienen arreglo; el resto queda en null
+    private int[][] otrosAutores = new int[CAPACIDAD_INICIAL][];
+
+    // Diccionario de idiomas: el libro guarda el índice del código
+    private final List<String> codigosIdioma = new ArrayList<>();
+    private final Map<String, Short> indicesIdioma = new HashMap<>();
+
+    // Diccionario de autores: el TreeMap da el orden alfabético y el índice de cada nombre
+    private final TreeMap<String, Integer> indicesAutor = new TreeMap<>();
+    private int cantidadAutores;
+    private long[] autorIds = new long[CAPACIDAD_INICIAL];
+    private String[] nombres = new String[CAPACIDAD_INICIAL];
+    private int[] nacimientos = new int[CAPACIDAD_INICIAL];
+    private int[] fallecimientos = new int[CAPACIDAD_INICIAL];
+
+    /**
+     * Lee todo el catálogo de la BD en una sola pasada. Hasta que termina, {@link LibroService} sigue
+     * respondiendo desde la BD
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Async
+    @Transactional(readOnly = true)
+    public void cargar() {
+        long inicio = System.nanoTime();
+        candado.writeLock().lock();
+        try (Stream<FilaExportacion> filas = libroRepository.leerCatalogoParaExportar()) {
+            List<FilaExportacion> delLibro = new ArrayList<>();
+            filas.forEach(fila -> {
+                if (!delLibro.isEmpty() && !delLibro.get(0).libroId().equals(fila.libroId())) {
+                    agregarDesdeFilas(delLibro);
+                    delLibro.clear();
+                }
+                delLibro.add(fila);
+            });
+            if (!delLibro.isEmpty()) {
+                agregarDesdeFilas(delLibro);
+            }
+            cargado = true;
+        } finally {
+            candado.writeLock().unlock();
+        }
+        log.info("Catálogo en memoria cargado: {} libros y {} autores en {} ms",
+            cantidadLibros, cantidadAutores, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private void agregarDesdeFilas(List<FilaExportacion> filas) {
+        FilaExportacion libro = filas.get(0);
+        int[] autores = filas.stream()
+            .filter(fila -> fila.autor() != null)
+            .mapToInt(fila -> registrarAutor(fila.autorId(), fila.autor(), fila.anioNacimiento(), fila.anioFallecimiento()))
+            .toArray();
+        agregarLibro(libro.libroId(), libro.titulo(), libro.numeroDescargas(), libro.idioma(), autores);
+    }
+
+    /**
+     * Agrega los libros que la ingesta acaba de confirmar en la BD
+     */
+    @TransactionalEventListener
+    public void alGuardarLibros(LibrosGuardadosEvent evento) {
+        agregar(evento.libros());
+    }
+
+    /**
+     * Actualiza las descargas de los libros que cambiaron en un refresco confirmado
+     */
+    @TransactionalEventListener
+    public void alActualizarDescargas(DescargasActualizadasEvent evento) {
+        candado.writeLock().lock();
+        try {
+            evento.descargasPorLibro().forEach((id, nuevas) -> {
+                int posicion = Arrays.binarySearch(ids, 0, cantidadLibros, id);
+                if (posicion >= 0) {
+                    descargas[posicion] = nuevas;
+                }
+            });
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    void agregar(List<Libro> libros) {
+        candado.writeLock().lock();
+        try {
+            for (Libro libro : libros) {
+                int[] autores = libro.getAutores().stream()
+                    .mapToInt(autor -> registrarAutor(autor.getId(), autor.getNombre(),
+                        autor.getAnioNacimiento(), autor.getAnioFallecimiento()))
+                    .toArray();
+                agregarLibro(libro.getId(), libro.getTitulo(), libro.getNumeroDescargas(), libro.getIdioma(), autores);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    boolean estaCargado() {
+        return cargado;
+    }
+
+    // Devuelve el índice del autor; si ya existía completa los años que le faltaban
+    private int registrarAutor(Long id, String nombre, Integer nacimiento, Integer fallecimiento) {
+        Integer existente = indicesAutor.get(nombre);
+        if (existente != null) {
+            if (nacimientos[existente] == SIN_DATO && nacimiento != null) {
+                nacimientos[existente] = nacimiento;
+            }
+            if (fallecimientos[existente] == SIN_DATO && fallecimiento != null) {
+                fallecimientos[existente] = fallecimiento;
+            }
+            return existente;
+        }
+        if (cantidadAutores == nombres.length) {
+            int capacidad = nombres.length * 2;
+            autorIds = Arrays.copyOf(autorIds, capacidad);
+            nombres = Arrays.copyOf(nombres, capacidad);
+            nacimientos = Arrays.copyOf(nacimientos, capacidad);
+            fallecimientos = Arrays.copyOf(fallecimientos, capacidad);
+        }
+        int indice = cantidadAutores++;
+        autorIds[indice] = id != null ? id : SIN_DATO;
+        nombres[indice] = nombre;
+        nacimientos[indice] = nacimiento != null ? nacimiento : SIN_DATO;
+        fallecimientos[indice] = fallecimiento != null ? fallecimiento : SIN_DATO;
+        indicesAutor.put(nombre, indice);
+        return indice;
+    }
+
+    private void agregarLibro(long id, String titulo, Integer numeroDescargas, String idioma, int[] autores) {
+        // Los ids nuevos casi siempre son mayores que el último; si no, se inserta en su lugar
+        int posicion = cantidadLibros;
+        if (cantidadLibros > 0 && id <= ids[cantidadLibros - 1]) {
+            int encontrado = Arrays.binarySearch(ids, 0, cantidadLibros, id);
+            if (encontrado >= 0) {
+                return;
+            }
+            posicion = -(encontrado + 1);
+        }
+        if (cantidadLibros == ids.length) {
+            int capacidad = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacidad);
+            iniciosTitulo = Arrays.copyOf(iniciosTitulo, capacidad);
+            largosTitulo = Arrays.copyOf(largosTitulo, capacidad);
+            idiomas = Arrays.copyOf(idiomas, capacidad);
+            descargas = Arrays.copyOf(descargas, capacidad);
+            autoresPrincipales = Arrays.copyOf(autoresPrincipales, capacidad);
+            otrosAutores = Arrays.copyOf(otrosAutores, capacidad);
+        }
+        if (posicion < cantidadLibros) {
+            int desplazar = cantidadLibros - posicion;
+            System.arraycopy(ids, posicion, ids, posicion + 1, desplazar);
+            System.arraycopy(iniciosTitulo, posicion, iniciosTitulo, posicion + 1, desplazar);
+            System.arraycopy(largosTitulo, posicion, largosTitulo, posicion + 1, desplazar);
+            System.arraycopy(idiomas, posicion, idiomas, posicion + 1, desplazar);
+            System.arraycopy(descargas, posicion, descargas, posicion + 1, desplazar);
+            System.arraycopy(autoresPrincipales, posicion, autoresPrincipales, posicion + 1, desplazar);
+            System.arraycopy(otrosAutores, posicion, otrosAutores, posicion + 1, desplazar);
+        }
+        ids[posicion] = id;
+        guardarTitulo(posicion, titulo);
+        idiomas[posicion] = indiceIdioma(idioma);
+        descargas[posicion] = numeroDescargas != null ? numeroDescargas : SIN_DATO;
+        autoresPrincipales[posicion] = autores.length > 0 ? autores[0] : -1;
+        otrosAutores[posicion] = autores.length > 1 ? Arrays.copyOfRange(autores, 1, autores.length) : null;
+        cantidadLibros++;
+    }
+
+    private void guardarTitulo(int posicion, String titulo) {
+        if (titulo == null) {
+            largosTitulo[posicion] = -1;
+            return;
+        }
+        byte[] bytes = titulo.getBytes(StandardCharsets.UTF_8);
+        if (bytesTitulosUsados + bytes.length > bytesTitulos.length) {
+            bytesTitulos = Arrays.copyOf(bytesTitulos, Math.max(bytesTitulos.length * 2, bytesTitulosUsados + bytes.length));
+        }
+        System.arraycopy(bytes, 0, bytesTitulos, bytesTitulosUsados, bytes.length);
+        iniciosTitulo[posicion] = bytesTitulosUsados;
+        largosTitulo[posicion] = bytes.length;
+        bytesTitulosUsados += bytes.length;
+    }
+
+    private String titulo(int i) {
+        return largosTitulo[i] >= 0 ? new String(bytesTitulos, iniciosTitulo[i], largosTitulo[i], StandardCharsets.UTF_8) : null;
+    }
+
+    private short indiceIdioma(String idioma) {
+        if (idioma == null) {
+            return -1;
+        }
+        return indicesIdioma.computeIfAbsent(idioma, codigo -> {
+            codigosIdioma.add(codigo);
+            return (short) (codigosIdioma.size() - 1);
+        });
+    }
+
+    // ===== CONSULTAS: se arman bajo el candado de lectura y se devuelven como listas independientes =====
+
+    public int cantidadLibros() {
+        return cantidadLibros;
+    }
+
+    public List<String> nombresDeAutores() {
+        candado.readLock().lock();
+        try {
+            return new ArrayList<>(indicesAutor.keySet());
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Autores vivos en el año, en orden alfabético y con los títulos de sus libros ordenados
+     */
+    public List<AutorDTO> autoresVivosEn(int anio) {
+        candado.readLock().lock();
+        try {
+            Map<Integer, List<String>> titulosPorAutor = new HashMap<>();
+            for (int indice : indicesAutor.values()) {
+                if (nacimientos[indice] != SIN_DATO && fallecimientos[indice] != SIN_DATO
+                        && nacimientos[indice] <= anio && fallecimientos[indice] >= anio) {
+                    titulosPorAutor.put(indice, new ArrayList<>());
+                }
+            }
+            if (titulosPorAutor.isEmpty()) {
+                return List.of();
+            }
+            for (int i = 0; i < cantidadLibros; i++) {
+                agregarTitulo(titulosPorAutor, autoresPrincipales[i], i);
+                if (otrosAutores[i] != null) {
+                    for (int autor : otrosAutores[i]) {
+                        agregarTitulo(titulosPorAutor, autor, i);
+                    }
+                }
+            }
+            List<AutorDTO> vivos = new ArrayList<>(titulosPorAutor.size());
+            for (int indice : indicesAutor.values()) {
+                List<String> titulosDelAutor = titulosPorAutor.get(indice);
+                if (titulosDelAutor != null) {
+                    titulosDelAutor.sort(null);
+                    vivos.add(new AutorDTO(autorIds[indice] != SIN_DATO ? autorIds[indice] : null, nombres[indice],
+                        nacimientos[indice], fallecimientos[indice], titulosDelAutor));
+                }
+            }
+            return vivos;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private void agregarTitulo(Map<Integer, List<String>> titulosPorAutor, int autor, int libro) {
+        List<String> titulosDelAutor = titulosPorAutor.get(autor);
+        if (titulosDelAutor != null) {
+            titulosDelAutor.add(titulo(libro));
+        }
+    }
+
+    /**
+     * Libros con ese código de idioma exacto, en orden de id
+     */
+    public List<LibroResumenDTO> librosPorIdioma(String idioma) {
+        candado.readLock().lock();
+        try {
+            Short codigo = indicesIdioma.get(idioma);
+            if (codigo == null) {
+                return List.of();
+            }
+            List<LibroResumenDTO> libros = new ArrayList<>();
+            for (int i = 0; i < cantidadLibros; i++) {
+                if (idiomas[i] == codigo) {
+                    libros.add(new LibroResumenDTO(ids[i], titulo(i),
+                        autoresPrincipales[i] >= 0 ? nombres[autoresPrincipales[i]] : null, idioma, descargas(i)));
+                }
+            }
+            return libros;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public List<LibroDTO> todos() {
+        return pagina(0, Integer.MAX_VALUE).libros();
+    }
+
+    /**
+     * Hasta {@code tamano} libros con id mayor que {@code despuesDeId}, en orden de id; igual que la
+     * consulta a la BD, hay cursor siguiente siempre que la página esté llena
+     */
+    public PaginaLibros pagina(long despuesDeId, int tamano) {
+        candado.readLock().lock();
+        try {
+            int desde = Arrays.binarySearch(ids, 0, cantidadLibros, despuesDeId);
+            desde = desde >= 0 ? desde + 1 : -(desde + 1);
+            int hasta = (int) Math.min((long) desde + tamano, cantidadLibros);
+            List<LibroDTO> libros = new ArrayList<>(Math.max(hasta - desde, 0));
+            for (int i = desde; i < hasta; i++) {
+                libros.add(convertir(i));
+            }
+            String siguiente = libros.size() < tamano || libros.isEmpty() ? null : PaginaLibros.cursorDespuesDe(ids[hasta - 1]);
+            return new PaginaLibros(libros, siguiente);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private LibroDTO convertir(int i) {
+        int principal = autoresPrincipales[i];
+        List<String> autores = new ArrayList<>(1 + (otrosAutores[i] != null ? otrosAutores[i].length : 0));
+        if (principal >= 0) {
+            autores.add(nombres[principal]);
+            if (otrosAutores[i] != null) {
+                for (int autor : otrosAutores[i]) {
+                    autores.add(nombres[autor]);
+                }
+            }
+        }
+        return new LibroDTO(
+            titulo(i),
+            principal >= 0 ? nombres[principal] : LibroService.AUTOR_DESCONOCIDO,
+            principal >= 0 ? anio(fallecimientos[principal]) : null,
+            principal >= 0 ? anio(nacimientos[principal]) : null,
+            descargas(i),
+            idiomas[i] >= 0 ? codigosIdioma.get(idiomas[i]) : null,
+            autores);
+    }
+
+    private Integer descargas(int i) {
+        return descargas[i] != SIN_DATO ? descargas[i] : null;
+    }
+
+    private static Integer anio(int valor) {
+        return valor != SIN_DATO ? valor : null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.alura.literAlura_challenge;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Posición guardada de una cosecha del catálogo, para reanudarla tras un reinicio
+ */
+@Entity
+@Table(name = "checkpoints_cosecha")
+public class CheckpointCosecha {
+    @Id
+    private String nombre;
+    // Última página tal que ella y todas las anteriores ya están guardadas en la BD
+    private int ultimaPaginaCompleta;
+    // Mayor id de Gutenberg de esas páginas: los libros con ids menores ya están guardados. La página es solo
+    // una referencia para reanudar; el id no cambia si el catálogo se corre de página
+    private Integer ultimoGutenbergId;
+    private Integer totalPaginas;
+    private boolean completa;
+    private LocalDateTime actualizadoEn;
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getUltimaPaginaCompleta() {
+        return ultimaPaginaCompleta;
+    }
+
+    public Integer getUltimoGutenbergId() {
+        return ultimoGutenbergId;
+    }
+
+    public Integer getTotalPaginas() {
+        return totalPaginas;
+    }
+
+    public boolean isCompleta() {
+        return completa;
+    }
+
+    public LocalDateTime getActualizadoEn() {
+        return actualizadoEn;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public void setUltimaPaginaCompleta(int ultimaPaginaCompleta) {
+        this.ultimaPaginaCompleta = ultimaPaginaCompleta;
+    }
+
+    public void setUltimoGutenbergId(Integer ultimoGutenbergId) {
+        this.ultimoGutenbergId = ultimoGutenbergId;
+    }
+
+    public void setTotalPaginas(Integer totalPaginas) {
+        this.totalPaginas = totalPaginas;
+    }
+
+    public void setCompleta(boolean completa) {
+        this.completa = completa;
+    }
+
+    public void setActualizadoEn(LocalDateTime actualizadoEn) {
+        this.actualizadoEn = actualizadoEn;
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.alura.literAlura_challenge;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CheckpointCosechaRepository extends JpaRepository<CheckpointCosecha, String> {
+}
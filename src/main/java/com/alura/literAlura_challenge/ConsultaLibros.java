@@ -0,0 +1,160 @@
+package com.alura.literAlura_challenge;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Búsqueda de libros con filtros por campo, por ejemplo {@code pride author:austen lang:en downloads>1000 alive:1800}.
+ * Las palabras sueltas deben aparecer en el título o en algún autor. Filtros:
+ * author: (parte del nombre de algún autor), lang: (código de idioma), downloads> y downloads>= (descargas mínimas)
+ * y alive: (algún autor vivo ese año); también en español: autor:, idioma:, descargas>, vivo:.
+ * Un valor o una frase con espacios va entre comillas: {@code author:"austen, jane"}
+ * @param palabras Palabras sueltas (o frases entre comillas) en minúsculas
+ * @param autor Parte del nombre de un autor en minúsculas, o null
+ * @param idioma Código de idioma, o null
+ * @param descargasMayoresA Las descargas deben superar este valor, o null
+ * @param vivoEn Año en el que debe haber vivido algún autor, o null
+ */
+public record ConsultaLibros(
+    List<String> palabras,
+    String autor,
+    String idioma,
+    Integer descargasMayoresA,
+    Integer vivoEn
+    ) {
+    // Una palabra, un filtro campo:valor / campo>valor, o una frase entre comillas; el valor también puede ir entre comillas
+    private static final Pattern ELEMENTO =
+        Pattern.compile("(?:([\\p{L}]+)(:|>=|>))?(?:\"([^\"]*)\"?|(\\S*))");
+    private static final Pattern IDIOMA = Pattern.compile("[a-z]{2,3}");
+
+    public ConsultaLibros {
+        palabras = List.copyOf(palabras);
+    }
+
+    /**
+     * Interpreta el texto escrito por el usuario. Un campo desconocido (por ejemplo {@code tomo:1}) se toma como palabra
+     * @throws IllegalArgumentException si un filtro conocido no tiene valor o el valor no es válido
+     */
+    public static ConsultaLibros interpretar(String texto) {
+        List<String> palabras = new ArrayList<>();
+        String autor = null;
+        String idioma = null;
+        Integer descargasMayoresA = null;
+        Integer vivoEn = null;
+        Matcher elemento = ELEMENTO.matcher(texto == null ? "" : texto);
+        while (elemento.find()) {
+            String campo = elemento.group(1) != null ? elemento.group(1).toLowerCase(Locale.ROOT) : null;
+            String operador = elemento.group(2);
+            String valor = (elemento.group(3) != null ? elemento.group(3) : elemento.group(4))
+                .trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            String filtro = campo == null ? null : switch (campo) {
+                case "author", "autor" -> ":".equals(operador) ? "autor" : null;
+                case "lang", "idioma" -> ":".equals(operador) ? "idioma" : null;
+                case "downloads", "descargas" -> ":".equals(operador) ? null : "descargas";
+                case "alive", "vivo" -> ":".equals(operador) ? "vivo" : null;
+                default -> null;
+            };
+            if (filtro == null) {
+                String palabra = campo == null ? valor : campo + operador + valor;
+                if (!palabra.isEmpty()) {
+                    palabras.add(palabra);
+                }
+                continue;
+            }
+            if (valor.isEmpty()) {
+                throw new IllegalArgumentException("Falta el valor de " + campo + operador);
+            }
+            switch (filtro) {
+                case "autor" -> autor = valor;
+                case "idioma" -> {
+                    if (!IDIOMA.matcher(valor).matches()) {
+                        throw new IllegalArgumentException("Idioma no válido: " + valor);
+                    }
+                    idioma = valor;
+                }
+                case "descargas" -> {
+                    int minimo = entero(campo, valor);
+                    descargasMayoresA = ">=".equals(operador) ? minimo - 1 : minimo;
+                }
+                default -> vivoEn = entero(campo, valor);
+            }
+        }
+        return new ConsultaLibros(palabras, autor, idioma, descargasMayoresA, vivoEn);
+    }
+
+    private static int entero(String campo, String valor) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Se esperaba un número en " + campo + ": " + valor);
+        }
+    }
+
+    public boolean estaVacia() {
+        return palabras.isEmpty() && autor == null && idioma == null && descargasMayoresA == null && vivoEn == null;
+    }
+
+    /**
+     * Parámetros de la API de Gutendex que aplican los filtros que ella sabe resolver: {@code search} con las palabras
+     * y el autor (la API busca cada palabra en el título y los autores), {@code languages}, y
+     * {@code author_year_start}/{@code author_year_end} con el mismo año para un autor vivo en él.
+     * Las descargas no tienen parámetro y se filtran con {@link #cumple(LibroDTO)}
+     */
+    public Map<String, String> parametrosGutendex() {
+        Map<String, String> parametros = new LinkedHashMap<>();
+        List<String> busqueda = new ArrayList<>(palabras);
+        if (autor != null) {
+            busqueda.add(autor.replace(",", " "));
+        }
+        if (!busqueda.isEmpty()) {
+            parametros.put("search", String.join(" ", busqueda).replaceAll("\\s+", " "));
+        }
+        if (idioma != null) {
+            parametros.put("languages", idioma);
+        }
+        if (vivoEn != null) {
+            parametros.put("author_year_start", vivoEn.toString());
+            parametros.put("author_year_end", vivoEn.toString());
+        }
+        return parametros;
+    }
+
+    /**
+     * Verifica en un libro recibido de la API los filtros que la API no aplica o aplica de forma más amplia
+     * (el autor, que ella busca palabra por palabra también en el título, y las descargas)
+     */
+    public boolean cumple(LibroDTO libro) {
+        if (descargasMayoresA != null && (libro.numeroDescargas() == null || libro.numeroDescargas() <= descargasMayoresA)) {
+            return false;
+        }
+        return autor == null || libro.autores().stream()
+            .anyMatch(nombre -> nombre.toLowerCase(Locale.ROOT).contains(autor));
+    }
+
+    /**
+     * Texto equivalente con los filtros en un orden fijo: dos consultas escritas distinto que piden lo mismo
+     * comparten la entrada de la caché de respuestas de la API
+     */
+    public String comoTexto() {
+        List<String> partes = new ArrayList<>();
+        palabras.forEach(palabra -> partes.add(palabra.contains(" ") ? "\"" + palabra + "\"" : palabra));
+        if (autor != null) {
+            partes.add("author:\"" + autor + "\"");
+        }
+        if (idioma != null) {
+            partes.add("lang:" + idioma);
+        }
+        if (descargasMayoresA != null) {
+            partes.add("downloads>" + descargasMayoresA);
+        }
+        if (vivoEn != null) {
+            partes.add("alive:" + vivoEn);
+        }
+        return String.join(" ", partes);
+    }
+}
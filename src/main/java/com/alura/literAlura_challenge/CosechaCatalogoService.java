@@ -0,0 +1,240 @@
+package com.alura.literAlura_challenge;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recorre el catálogo paginado completo de la API de Gutenberg y lo guarda en la BD local.
+ * Varias páginas se descargan en paralelo (con un límite configurable) mientras un único
+ * escritor las persiste; la cola acotada entre ambos frena las descargas si la BD se retrasa.
+ * Las páginas se piden ordenadas por id de Gutenberg y el checkpoint guarda el último id contiguo guardado.
+ */
+@Service
+public class CosechaCatalogoService {
+
+    static final String NOMBRE_CHECKPOINT = "gutendex";
+
+    @Autowired
+    private LibroService libroService;
+
+    @Autowired
+    private IngestaLibrosService ingestaLibrosService;
+
+    @Autowired
+    private CheckpointCosechaRepository checkpointRepository;
+
+    @Value("${literalura.cosecha.concurrencia:4}")
+    private int concurrencia;
+
+    @Value("${literalura.cosecha.capacidad-cola:8}")
+    private int capacidadCola;
+
+    private final AtomicBoolean enCurso = new AtomicBoolean(false);
+
+    /**
+     * Cosecha el catálogo desde el último libro guardado en el checkpoint.
+     * Si la cosecha anterior terminó, empieza de nuevo desde la primera página
+     * @return Resumen de las páginas y libros procesados
+     */
+    public ResultadoCosecha cosecharCatalogo() {
+        if (!enCurso.compareAndSet(false, true)) {
+            return new ResultadoCosecha(0, 0, false, "Ya hay una cosecha en curso");
+        }
+        try {
+            return cosechar();
+        } finally {
+            enCurso.set(false);
+        }
+    }
+
+    private ResultadoCosecha cosechar() {
+        CheckpointCosecha checkpoint = cargarCheckpoint();
+        PaginaDescargada primera = descargarPaginaInicial(checkpoint);
+        if (primera.error() != null) {
+            return new ResultadoCosecha(0, 0, false, "Error al descargar la página " + primera.pagina() + ": " + primera.error());
+        }
+        int paginaInicial = primera.pagina();
+        int totalPaginas = calcularTotalPaginas(paginaInicial, primera.respuesta());
+        checkpoint.setTotalPaginas(totalPaginas);
+
+        BlockingQueue<PaginaDescargada> cola = new ArrayBlockingQueue<>(Math.max(1, capacidadCola));
+        AtomicInteger contadorHilos = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, concurrencia), tarea -> {
+            Thread hilo = new Thread(tarea, "cosecha-" + contadorHilos.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            cola.add(primera);
+            for (int pagina = paginaInicial + 1; pagina <= totalPaginas; pagina++) {
+                int numero = pagina;
+                executor.execute(() -> descargarHacia(cola, numero));
+            }
+            return escribirPaginas(cola, checkpoint, paginaInicial, totalPaginas);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Descarga la página desde la que sigue la cosecha. El catálogo se recorre ordenado por id de Gutenberg, pero
+     * si se borraron libros las páginas ya recorridas se corren hacia atrás: por eso se vuelve a pedir la última
+     * página completa y se retrocede mientras empiece después del último id guardado. Los libros ya guardados
+     * que esto vuelva a traer se descartan al guardar
+     */
+    private PaginaDescargada descargarPaginaInicial(CheckpointCosecha checkpoint) {
+        Integer ultimoId = checkpoint.getUltimoGutenbergId();
+        if (ultimoId == null) {
+            return descargar(checkpoint.getUltimaPaginaCompleta() + 1);
+        }
+        int pagina = Math.max(1, checkpoint.getUltimaPaginaCompleta());
+        while (true) {
+            PaginaDescargada descargada = descargar(pagina);
+            if (descargada.error() != null) {
+                return descargada;
+            }
+            Integer primerId = primerId(descargada.respuesta());
+            if (pagina > 1 && (primerId == null || primerId > ultimoId)) {
+                pagina--;
+                continue;
+            }
+            Integer ultimoDeLaPagina = ultimoId(descargada.respuesta());
+            if (ultimoDeLaPagina != null && ultimoDeLaPagina <= ultimoId && descargada.respuesta().siguiente() != null) {
+                return descargar(pagina + 1);
+            }
+            return descargada;
+        }
+    }
+
+    /**
+     * Consume las páginas descargadas y las guarda en la BD, avanzando el checkpoint
+     * solo hasta la última página contigua ya guardada
+     */
+    private ResultadoCosecha escribirPaginas(BlockingQueue<PaginaDescargada> cola, CheckpointCosecha checkpoint,
+                                             int paginaInicial, int totalPaginas) {
+        int esperadas = totalPaginas - paginaInicial + 1;
+        int paginasProcesadas = 0;
+        int librosGuardados = 0;
+        int ultimaCompleta = paginaInicial - 1;
+        Integer ultimoIdCompleto = checkpoint.getUltimoGutenbergId();
+        // Páginas guardadas después de un hueco, con su mayor id de Gutenberg
+        SortedMap<Integer, Integer> guardadasFueraDeOrden = new TreeMap<>();
+
+        while (paginasProcesadas < esperadas) {
+            PaginaDescargada descargada;
+            try {
+                descargada = cola.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new ResultadoCosecha(paginasProcesadas, librosGuardados, false, "Cosecha interrumpida");
+            }
+            if (descargada.error() != null) {
+                return new ResultadoCosecha(paginasProcesadas, librosGuardados, false,
+                    "Error al descargar la página " + descargada.pagina() + ": " + descargada.error());
+            }
+            try {
+                librosGuardados += ingestaLibrosService.guardarNuevos(
+                    libroService.convertirAEntidades(descargada.respuesta().libros())).size();
+            } catch (Exception e) {
+                return new ResultadoCosecha(paginasProcesadas, librosGuardados, false,
+                    "Error al guardar la página " + descargada.pagina() + ": " + e.getMessage());
+            }
+            paginasProcesadas++;
+
+            guardadasFueraDeOrden.put(descargada.pagina(), ultimoId(descargada.respuesta()));
+            int anterior = ultimaCompleta;
+            while (guardadasFueraDeOrden.containsKey(ultimaCompleta + 1)) {
+                Integer ultimoId = guardadasFueraDeOrden.remove(++ultimaCompleta);
+                if (ultimoId != null && (ultimoIdCompleto == null || ultimoId > ultimoIdCompleto)) {
+                    ultimoIdCompleto = ultimoId;
+                }
+            }
+            if (ultimaCompleta != anterior) {
+                guardarCheckpoint(checkpoint, ultimaCompleta, ultimoIdCompleto, false);
+            }
+        }
+
+        guardarCheckpoint(checkpoint, totalPaginas, ultimoIdCompleto, true);
+        return new ResultadoCosecha(paginasProcesadas, librosGuardados, true, null);
+    }
+
+    private void descargarHacia(BlockingQueue<PaginaDescargada> cola, int pagina) {
+        PaginaDescargada descargada = descargar(pagina);
+        try {
+            // Bloquea si el escritor va atrasado: así se limita la memoria ocupada por páginas pendientes
+            cola.put(descargada);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PaginaDescargada descargar(int pagina) {
+        try {
+            return new PaginaDescargada(pagina, libroService.obtenerPagina(pagina), null);
+        } catch (Exception e) {
+            return new PaginaDescargada(pagina, null, e.getMessage());
+        }
+    }
+
+    private static Integer primerId(PaginaGutendex respuesta) {
+        return respuesta.libros().stream().map(LibroGutendex::gutenbergId).filter(Objects::nonNull)
+            .min(Integer::compare).orElse(null);
+    }
+
+    private static Integer ultimoId(PaginaGutendex respuesta) {
+        return respuesta.libros().stream().map(LibroGutendex::gutenbergId).filter(Objects::nonNull)
+            .max(Integer::compare).orElse(null);
+    }
+
+    private int calcularTotalPaginas(int paginaInicial, PaginaGutendex respuesta) {
+        if (respuesta.siguiente() == null || respuesta.total() == null || respuesta.libros().isEmpty()) {
+            return paginaInicial;
+        }
+        // Una página con enlace "next" siempre viene llena, así que su tamaño es el tamaño de página
+        int tamanoPagina = respuesta.libros().size();
+        return Math.max(paginaInicial, (respuesta.total() + tamanoPagina - 1) / tamanoPagina);
+    }
+
+    private CheckpointCosecha cargarCheckpoint() {
+        CheckpointCosecha checkpoint = checkpointRepository.findById(NOMBRE_CHECKPOINT).orElseGet(() -> {
+            CheckpointCosecha nuevo = new CheckpointCosecha();
+            nuevo.setNombre(NOMBRE_CHECKPOINT);
+            return nuevo;
+        });
+        if (checkpoint.isCompleta()) {
+            checkpoint.setUltimaPaginaCompleta(0);
+            checkpoint.setUltimoGutenbergId(null);
+            checkpoint.setCompleta(false);
+        }
+        return checkpoint;
+    }
+
+    private void guardarCheckpoint(CheckpointCosecha checkpoint, int ultimaPaginaCompleta, Integer ultimoGutenbergId,
+                                   boolean completa) {
+        checkpoint.setUltimaPaginaCompleta(ultimaPaginaCompleta);
+        checkpoint.setUltimoGutenbergId(ultimoGutenbergId);
+        checkpoint.setCompleta(completa);
+        checkpoint.setActualizadoEn(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    private record PaginaDescargada(int pagina, PaginaGutendex respuesta, String error) {
+    }
+
+    /**
+     * Resumen de una ejecución de la cosecha
+     */
+    public record ResultadoCosecha(int paginasProcesadas, int librosGuardados, boolean completa, String error) {
+    }
+}
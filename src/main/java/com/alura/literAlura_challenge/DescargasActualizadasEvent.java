@@ -0,0 +1,10 @@
+package com.alura.literAlura_challenge;
+
+import java.util.Map;
+
+/**
+ * Publicado por {@link IngestaLibrosService} con las nuevas descargas de los libros que cambiaron
+ * en un refresco, indexadas por id. Los oyentes lo reciben después del commit
+ */
+public record DescargasActualizadasEvent(Map<Long, Integer> descargasPorLibro) {
+}
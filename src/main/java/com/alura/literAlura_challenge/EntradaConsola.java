@@ -0,0 +1,75 @@
+package com.alura.literAlura_challenge;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lee las líneas de la consola en un hilo propio y las deja en una cola. Así el menú puede esperar una
+ * búsqueda en curso y, a la vez, atender lo que escribe el usuario (cancelar o agregar otra búsqueda)
+ * sin quedar bloqueado en la lectura
+ */
+class EntradaConsola {
+
+    // Marca el final de la entrada; se vuelve a encolar para que todas las lecturas siguientes la vean
+    private static final String FIN = new String("\u0000fin");
+
+    private final BlockingQueue<String> lineas = new LinkedBlockingQueue<>();
+
+    EntradaConsola(InputStream entrada, Charset charset) {
+        Thread lector = new Thread(() -> leer(new BufferedReader(new InputStreamReader(entrada, charset))), "consola-entrada");
+        lector.setDaemon(true);
+        lector.start();
+    }
+
+    private void leer(BufferedReader entrada) {
+        try {
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                lineas.add(linea);
+            }
+        } catch (IOException e) {
+            // Sin más entrada: se trata igual que el final del archivo
+        } finally {
+            lineas.add(FIN);
+        }
+    }
+
+    /**
+     * Espera la siguiente línea
+     * @return La línea, o null si la entrada terminó
+     */
+    String leerLinea() {
+        try {
+            String linea = lineas.take();
+            if (linea == FIN) {
+                lineas.add(FIN);
+                return null;
+            }
+            return linea;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Espera la siguiente línea como máximo el tiempo indicado
+     * @return La línea, o null si no llegó ninguna a tiempo o la entrada terminó
+     */
+    String leerLinea(long espera, TimeUnit unidad) throws InterruptedException {
+        String linea = lineas.poll(espera, unidad);
+        if (linea == FIN) {
+            // Terminada la entrada, se espera igual el tiempo pedido para no girar en vacío
+            lineas.add(FIN);
+            unidad.sleep(espera);
+            return null;
+        }
+        return linea;
+    }
+}
@@ -0,0 +1,61 @@
+package com.alura.literAlura_challenge;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Contador preagregado del catálogo, actualizado en la misma transacción que guarda los libros.
+ * Por ejemplo: tipo LIBROS_POR_IDIOMA, clave "en", valor = cantidad de libros en inglés
+ */
+@Entity
+@Table(name = "estadisticas_catalogo", indexes = {
+    @Index(name = "idx_estadisticas_tipo_valor", columnList = "tipo, valor")
+})
+public class EstadisticaCatalogo {
+    // tipo + ":" + clave
+    @Id
+    private String id;
+    @Enumerated(EnumType.STRING)
+    private TipoEstadistica tipo;
+    private String clave;
+    private long valor;
+
+    public EstadisticaCatalogo() {
+    }
+
+    public EstadisticaCatalogo(TipoEstadistica tipo, String clave, long valor) {
+        this.id = generarId(tipo, clave);
+        this.tipo = tipo;
+        this.clave = clave;
+        this.valor = valor;
+    }
+
+    static String generarId(TipoEstadistica tipo, String clave) {
+        return tipo.name() + ":" + clave;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public TipoEstadistica getTipo() {
+        return tipo;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public long getValor() {
+        return valor;
+    }
+
+    public void setValor(long valor) {
+        this.valor = valor;
+    }
+
+}
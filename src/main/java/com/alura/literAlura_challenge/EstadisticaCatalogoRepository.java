@@ -0,0 +1,28 @@
+package com.alura.literAlura_challenge;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface EstadisticaCatalogoRepository extends JpaRepository<EstadisticaCatalogo, String> {
+
+    // Incremento atómico en la BD, para que dos ingestas simultáneas no pisen sus contadores.
+    // Sin flush automático: solo toca esta tabla y revisar cada vez el contexto entero (los libros
+    // y autores de toda la transacción) hacía cuadrático el costo de guardar un bloque grande
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("UPDATE EstadisticaCatalogo e SET e.valor = e.valor + :delta WHERE e.id = :id")
+    int incrementar(@Param("id") String id, @Param("delta") long delta);
+
+    List<EstadisticaCatalogo> findByTipo(TipoEstadistica tipo);
+
+    List<EstadisticaCatalogo> findByTipoOrderByValorDesc(TipoEstadistica tipo, Limit limite);
+}
@@ -0,0 +1,56 @@
+package com.alura.literAlura_challenge;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/estadisticas")
+public class EstadisticasController {
+    private static final int TOP_MAXIMO = 100;
+
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    @Autowired
+    private CacheSegundoNivel cacheSegundoNivel;
+
+    @GetMapping
+    public EstadisticasService.ResumenEstadisticas obtenerResumen(@RequestParam(defaultValue = "10") int top) {
+        return estadisticasService.obtenerResumen(limitarTop(top));
+    }
+
+    @GetMapping("/idiomas")
+    public Map<String, Long> librosPorIdioma() {
+        return estadisticasService.librosPorIdioma();
+    }
+
+    @GetMapping("/autores")
+    public List<EstadisticasService.DescargasAutor> autoresMasDescargados(@RequestParam(defaultValue = "10") int top) {
+        return estadisticasService.autoresMasDescargados(limitarTop(top));
+    }
+
+    @GetMapping("/libros")
+    public List<LibroResumenDTO> librosMasDescargados(@RequestParam(defaultValue = "10") int top) {
+        return estadisticasService.librosMasDescargados(limitarTop(top));
+    }
+
+    /**
+     * Reconstruye los contadores desde las tablas; solo hace falta si se modificó la BD por fuera de la aplicación.
+     * Por el mismo motivo descarta la caché de segundo nivel y los ETag entregados
+     */
+    @PostMapping("/recalcular")
+    public EstadisticasService.ResumenEstadisticas recalcular() {
+        cacheSegundoNivel.limpiar();
+        return estadisticasService.recalcular();
+    }
+
+    private static int limitarTop(int top) {
+        return Math.min(Math.max(top, 1), TOP_MAXIMO);
+    }
+}
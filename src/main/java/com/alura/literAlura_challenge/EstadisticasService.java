@@ -0,0 +1,257 @@
+package com.alura.literAlura_challenge;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estadísticas del catálogo guardadas como contadores en la tabla estadisticas_catalogo.
+ * La ingesta los incrementa en su misma transacción, así que leerlas no recorre libros ni autores
+ */
+@Service
+public class EstadisticasService {
+    private static final Logger log = LoggerFactory.getLogger(EstadisticasService.class);
+
+    @Autowired
+    private EstadisticaCatalogoRepository estadisticaRepository;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private AutorRepository autorRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Suma a los contadores los libros recién insertados. Debe llamarse dentro de la transacción
+     * que los guarda y con sus autores ya persistidos
+     */
+    void registrarLibros(List<Libro> nuevos) {
+        if (nuevos.isEmpty()) {
+            return;
+        }
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        long descargas = 0;
+        for (Libro libro : nuevos) {
+            long descargasLibro = libro.getNumeroDescargas() != null ? libro.getNumeroDescargas() : 0;
+            descargas += descargasLibro;
+            if (libro.getIdioma() != null) {
+                deltas.merge(EstadisticaCatalogo.generarId(TipoEstadistica.LIBROS_POR_IDIOMA, libro.getIdioma()), 1L, Long::sum);
+            }
+            for (Autor autor : libro.getAutores()) {
+                deltas.merge(EstadisticaCatalogo.generarId(TipoEstadistica.DESCARGAS_POR_AUTOR, autor.getId().toString()),
+                    descargasLibro, Long::sum);
+            }
+        }
+        deltas.put(EstadisticaCatalogo.generarId(TipoEstadistica.LIBROS, ""), (long) nuevos.size());
+        deltas.put(EstadisticaCatalogo.generarId(TipoEstadistica.DESCARGAS, ""), descargas);
+        deltas.put(VersionCatalogo.ID, 1L);
+        aplicar(deltas);
+    }
+
+    /**
+     * Suma a los contadores de descargas la diferencia de cada libro refrescado (puede ser negativa).
+     * Debe llamarse dentro de la transacción que actualiza los libros
+     */
+    void registrarDescargas(Map<Libro, Long> diferencias) {
+        if (diferencias.isEmpty()) {
+            return;
+        }
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<Libro, Long> diferencia : diferencias.entrySet()) {
+            total += diferencia.getValue();
+            for (Autor autor : diferencia.getKey().getAutores()) {
+                deltas.merge(EstadisticaCatalogo.generarId(TipoEstadistica.DESCARGAS_POR_AUTOR, autor.getId().toString()),
+                    diferencia.getValue(), Long::sum);
+            }
+        }
+        deltas.put(EstadisticaCatalogo.generarId(TipoEstadistica.DESCARGAS, ""), total);
+        deltas.put(VersionCatalogo.ID, 1L);
+        aplicar(deltas);
+    }
+
+    /**
+     * Suma un autor a los histogramas por década de los años recibidos (los null se ignoran).
+     * Para un autor existente se pasan solo los años que acaban de completarse
+     */
+    void registrarAnios(List<Integer> nacimientos, List<Integer> fallecimientos) {
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        nacimientos.forEach(anio -> deltas.merge(
+            EstadisticaCatalogo.generarId(TipoEstadistica.AUTORES_POR_DECADA_NACIMIENTO, String.valueOf(decada(anio))), 1L, Long::sum));
+        fallecimientos.forEach(anio -> deltas.merge(
+            EstadisticaCatalogo.generarId(TipoEstadistica.AUTORES_POR_DECADA_FALLECIMIENTO, String.valueOf(decada(anio))), 1L, Long::sum));
+        aplicar(deltas);
+    }
+
+    /**
+     * Un UPDATE atómico por contador; si la fila todavía no existe se crea con el valor inicial.
+     * Los contadores se actualizan en orden de id, así dos llamadas no se bloquean entre sí por el orden de sus
+     * filas. Entre transacciones, la ingesta y el refresco de descargas escriben sus libros antes de los contadores
+     * compartidos (LIBROS:, DESCARGAS:, VERSION_CATALOGO:); si igual se produce un bloqueo mutuo con otra
+     * escritura, {@link IngestaLibrosService#guardarNuevos} reintenta el lote y el refresco vuelve a pedir el suyo
+     * en su próxima ejecución.
+     * Las filas creadas se separan del contexto de persistencia para que una lectura posterior en la
+     * misma transacción vea los incrementos hechos por UPDATE y no la copia en memoria
+     */
+    private void aplicar(Map<String, Long> deltas) {
+        List<EstadisticaCatalogo> nuevas = new ArrayList<>();
+        new TreeMap<>(deltas).forEach((id, delta) -> {
+            if (estadisticaRepository.incrementar(id, delta) == 0) {
+                int separador = id.indexOf(':');
+                nuevas.add(new EstadisticaCatalogo(TipoEstadistica.valueOf(id.substring(0, separador)),
+                    id.substring(separador + 1), delta));
+            }
+        });
+        if (!nuevas.isEmpty()) {
+            nuevas.forEach(entityManager::persist);
+            // A través del repositorio para que un conflicto con una ingesta concurrente se traduzca a DataAccessException
+            estadisticaRepository.flush();
+            nuevas.forEach(entityManager::detach);
+        }
+    }
+
+    /**
+     * Reconstruye todos los contadores desde las tablas de libros y autores. Se usa al arrancar
+     * si no coinciden con la BD (primera ejecución, migración de datos previos) o a pedido.
+     * La versión del catálogo no se puede calcular: se conserva y avanza, porque los datos pudieron cambiar
+     */
+    @Transactional
+    public ResumenEstadisticas recalcular() {
+        Map<String, EstadisticaCatalogo> calculadas = new LinkedHashMap<>();
+        long libros = 0;
+        long descargas = 0;
+        for (Object[] fila : libroRepository.agregarPorIdioma()) {
+            long cantidad = ((Number) fila[1]).longValue();
+            libros += cantidad;
+            descargas += ((Number) fila[2]).longValue();
+            if (fila[0] != null) {
+                sumar(calculadas, TipoEstadistica.LIBROS_POR_IDIOMA, (String) fila[0], cantidad);
+            }
+        }
+        sumar(calculadas, TipoEstadistica.LIBROS, "", libros);
+        sumar(calculadas, TipoEstadistica.DESCARGAS, "", descargas);
+        for (Object[] fila : libroRepository.agregarDescargasPorAutor()) {
+            sumar(calculadas, TipoEstadistica.DESCARGAS_POR_AUTOR, fila[0].toString(), ((Number) fila[1]).longValue());
+        }
+        for (Object[] fila : autorRepository.contarPorAnioNacimiento()) {
+            sumar(calculadas, TipoEstadistica.AUTORES_POR_DECADA_NACIMIENTO,
+                String.valueOf(decada((Integer) fila[0])), ((Number) fila[1]).longValue());
+        }
+        for (Object[] fila : autorRepository.contarPorAnioFallecimiento()) {
+            sumar(calculadas, TipoEstadistica.AUTORES_POR_DECADA_FALLECIMIENTO,
+                String.valueOf(decada((Integer) fila[0])), ((Number) fila[1]).longValue());
+        }
+
+        sumar(calculadas, TipoEstadistica.VERSION_CATALOGO, "", valor(TipoEstadistica.VERSION_CATALOGO) + 1);
+
+        // El borrado masivo no pasa por el contexto de persistencia: se vacía antes de insertar los mismos ids
+        estadisticaRepository.deleteAllInBatch();
+        entityManager.flush();
+        entityManager.clear();
+        calculadas.values().forEach(entityManager::persist);
+        entityManager.flush();
+        return obtenerResumen(10);
+    }
+
+    private static void sumar(Map<String, EstadisticaCatalogo> calculadas, TipoEstadistica tipo, String clave, long valor) {
+        EstadisticaCatalogo estadistica = calculadas.computeIfAbsent(EstadisticaCatalogo.generarId(tipo, clave),
+            id -> new EstadisticaCatalogo(tipo, clave, 0));
+        estadistica.setValor(estadistica.getValor() + valor);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Async
+    @Transactional
+    public void verificarAlIniciar() {
+        if (valor(TipoEstadistica.LIBROS) != libroRepository.count()) {
+            log.info("Recalculando estadísticas del catálogo...");
+            recalcular();
+        }
+    }
+
+    // Década del año, también para años antes de Cristo: -45 queda en -50
+    static int decada(int anio) {
+        return Math.floorDiv(anio, 10) * 10;
+    }
+
+    @Transactional(readOnly = true)
+    public ResumenEstadisticas obtenerResumen(int top) {
+        return new ResumenEstadisticas(
+            valor(TipoEstadistica.LIBROS),
+            valor(TipoEstadistica.DESCARGAS),
+            librosPorIdioma(),
+            histograma(TipoEstadistica.AUTORES_POR_DECADA_NACIMIENTO),
+            histograma(TipoEstadistica.AUTORES_POR_DECADA_FALLECIMIENTO),
+            autoresMasDescargados(top),
+            librosMasDescargados(top));
+    }
+
+    public Map<String, Long> librosPorIdioma() {
+        Map<String, Long> porIdioma = new LinkedHashMap<>();
+        estadisticaRepository.findByTipoOrderByValorDesc(TipoEstadistica.LIBROS_POR_IDIOMA, Limit.unlimited())
+            .forEach(e -> porIdioma.put(e.getClave(), e.getValor()));
+        return porIdioma;
+    }
+
+    public List<DescargasAutor> autoresMasDescargados(int top) {
+        List<EstadisticaCatalogo> contadores = estadisticaRepository.findByTipoOrderByValorDesc(
+            TipoEstadistica.DESCARGAS_POR_AUTOR, Limit.of(top));
+        Map<Long, String> nombres = new HashMap<>();
+        autorRepository.findAllById(contadores.stream().map(e -> Long.valueOf(e.getClave())).toList())
+            .forEach(autor -> nombres.put(autor.getId(), autor.getNombre()));
+        List<DescargasAutor> resultado = new ArrayList<>();
+        for (EstadisticaCatalogo contador : contadores) {
+            String nombre = nombres.get(Long.valueOf(contador.getClave()));
+            if (nombre != null) {
+                resultado.add(new DescargasAutor(nombre, contador.getValor()));
+            }
+        }
+        return resultado;
+    }
+
+    public List<LibroResumenDTO> librosMasDescargados(int top) {
+        return libroRepository.listarMasDescargados(Limit.of(top));
+    }
+
+    private long valor(TipoEstadistica tipo) {
+        return estadisticaRepository.findById(EstadisticaCatalogo.generarId(tipo, ""))
+            .map(EstadisticaCatalogo::getValor).orElse(0L);
+    }
+
+    // Décadas en orden cronológico
+    private Map<Integer, Long> histograma(TipoEstadistica tipo) {
+        Map<Integer, Long> porDecada = new TreeMap<>();
+        estadisticaRepository.findByTipo(tipo).forEach(e -> porDecada.put(Integer.valueOf(e.getClave()), e.getValor()));
+        return porDecada;
+    }
+
+    public record DescargasAutor(String nombre, long descargas) {
+    }
+
+    public record ResumenEstadisticas(
+        long totalLibros,
+        long totalDescargas,
+        Map<String, Long> librosPorIdioma,
+        Map<Integer, Long> autoresPorDecadaNacimiento,
+        Map<Integer, Long> autoresPorDecadaFallecimiento,
+        List<DescargasAutor> autoresMasDescargados,
+        List<LibroResumenDTO> librosMasDescargados) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.alura.literAlura_challenge;
+
+/**
+ * Fila de la exportación del catálogo: un libro repetido una vez por cada autor, en orden
+ */
+public record FilaExportacion(
+    Long libroId,
+    String titulo,
+    Integer numeroDescargas,
+    String idioma,
+    String autor,
+    Integer anioNacimiento,
+    Integer anioFallecimiento,
+    Long autorId
+    ) {
+}
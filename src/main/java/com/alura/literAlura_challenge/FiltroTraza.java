@@ -0,0 +1,76 @@
+package com.alura.literAlura_challenge;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Asigna un id de traza a cada petición HTTP (el recibido en X-Trace-Id o uno nuevo), lo deja en el MDC
+ * para que aparezca en todos los logs de la petición y lo devuelve en la respuesta
+ */
+@Component
+public class FiltroTraza extends OncePerRequestFilter {
+    static final String CABECERA_TRAZA = "X-Trace-Id";
+    static final String CLAVE_TRAZA = "traceId";
+    private static final Pattern TRAZA_VALIDA = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest peticion, HttpServletResponse respuesta, FilterChain cadena)
+            throws ServletException, IOException {
+        // En el despacho asíncrono se conserva la traza asignada al recibir la petición
+        String traza = (String) peticion.getAttribute(CLAVE_TRAZA);
+        if (traza == null) {
+            traza = peticion.getHeader(CABECERA_TRAZA);
+            if (traza == null || !TRAZA_VALIDA.matcher(traza).matches()) {
+                traza = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+            }
+            peticion.setAttribute(CLAVE_TRAZA, traza);
+            respuesta.setHeader(CABECERA_TRAZA, traza);
+        }
+        MDC.put(CLAVE_TRAZA, traza);
+        try {
+            cadena.doFilter(peticion, respuesta);
+        } finally {
+            MDC.remove(CLAVE_TRAZA);
+        }
+    }
+
+    // Las respuestas asíncronas se despachan de nuevo al terminar: también llevan la traza
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    /**
+     * Envuelve una continuación de un CompletableFuture para que se ejecute con el MDC del hilo
+     * que la crea; sin esto los logs de la llamada a la API pierden el id de traza
+     */
+    static <T, R> Function<T, R> conTraza(Function<T, R> funcion) {
+        Map<String, String> contexto = MDC.getCopyOfContextMap();
+        if (contexto == null) {
+            return funcion;
+        }
+        return valor -> {
+            Map<String, String> anterior = MDC.getCopyOfContextMap();
+            MDC.setContextMap(contexto);
+            try {
+                return funcion.apply(valor);
+            } finally {
+                if (anterior == null) {
+                    MDC.clear();
+                } else {
+                    MDC.setContextMap(anterior);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,203 @@
+package com.alura.literAlura_challenge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cliente HTTP de la API de Gutenberg. Reutiliza conexiones (keep-alive), limita los tiempos
+ * de conexión y respuesta, no bloquea el hilo que llama, reintenta con espera aleatoria
+ * creciente ante 429/5xx y corta las llamadas mientras el servicio sigue fallando (5xx, tiempos
+ * agotados o errores de red; un 4xx no cuenta como fallo).
+ * Cada intento se mide en el timer literalura.gutendex.peticiones, etiquetado con la operación
+ * y el código de estado ("error" si no hubo respuesta HTTP válida).
+ * Las respuestas se leen con {@link LectorGutendex}, sin deserializar el árbol completo.
+ */
+@Component
+public class GutendexClient {
+
+    private final LectorGutendex lector;
+    private final String apiUrl;
+    private final Duration timeoutRespuesta;
+    // Intentos en total por llamada, el primero incluido: 1 no reintenta
+    private final int intentos;
+    private final Duration esperaBase;
+    private final InterruptorCircuito circuito;
+    private final HttpClient httpClient;
+    private final MeterRegistry registro;
+    private final Counter rechazadas;
+
+    @Autowired
+    public GutendexClient(ObjectMapper objectMapper,
+                          MeterRegistry registro,
+                          @Value("${gutenberg.api.url}") String apiUrl,
+                          @Value("${literalura.gutendex.timeout-conexion:5s}") Duration timeoutConexion,
+                          @Value("${literalura.gutendex.timeout-respuesta:15s}") Duration timeoutRespuesta,
+                          @Value("${literalura.gutendex.intentos:3}") int intentos,
+                          @Value("${literalura.gutendex.espera-base:250ms}") Duration esperaBase,
+                          @Value("${literalura.gutendex.circuito.fallos:5}") int umbralFallos,
+                          @Value("${literalura.gutendex.circuito.espera:30s}") Duration esperaCircuito) {
+        this.lector = new LectorGutendex(objectMapper.getFactory());
+        this.apiUrl = apiUrl;
+        this.timeoutRespuesta = timeoutRespuesta;
+        this.intentos = intentos;
+        this.esperaBase = esperaBase;
+        this.circuito = new InterruptorCircuito(umbralFallos, esperaCircuito, System::nanoTime);
+        this.registro = registro;
+        this.rechazadas = Counter.builder("literalura.gutendex.rechazadas")
+            .description("Llamadas no enviadas porque el circuito estaba abierto")
+            .register(registro);
+        Gauge.builder("literalura.gutendex.circuito", circuito, c -> c.getEstado().ordinal())
+            .description("Estado del circuito: 0 cerrado, 1 abierto, 2 semiabierto")
+            .register(registro);
+        // Un único HttpClient compartido mantiene el pool de conexiones abiertas
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(timeoutConexion)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    /**
+     * Busca libros por término en la API
+     */
+    public CompletableFuture<PaginaGutendex> buscar(String termino) {
+        return buscar(ConsultaLibros.interpretar(termino));
+    }
+
+    /**
+     * Busca libros en la API aplicando los filtros de la consulta que ella sabe resolver
+     * ({@link ConsultaLibros#parametrosGutendex()})
+     */
+    public CompletableFuture<PaginaGutendex> buscar(ConsultaLibros consulta) {
+        String parametros = consulta.parametrosGutendex().entrySet().stream()
+            .map(parametro -> parametro.getKey() + "="
+                + URLEncoder.encode(parametro.getValue(), StandardCharsets.UTF_8).replace("+", "%20"))
+            .collect(Collectors.joining("&"));
+        return obtener(parametros.isEmpty() ? apiUrl : apiUrl + "?" + parametros, "busqueda");
+    }
+
+    /**
+     * Obtiene una página del catálogo completo (empieza en 1)
+     */
+    public CompletableFuture<PaginaGutendex> obtenerPagina(int pagina) {
+        return obtener(pagina <= 1 ? apiUrl : apiUrl + "?page=" + pagina, "pagina");
+    }
+
+    /**
+     * Obtiene una página del catálogo completo ordenado por id de Gutenberg (empieza en 1). Con el orden por
+     * defecto (popularidad) el contenido de cada página cambia con las descargas; ordenado por id, los libros
+     * nuevos quedan al final y una página ya recorrida no se mueve
+     */
+    public CompletableFuture<PaginaGutendex> obtenerPaginaOrdenadaPorId(int pagina) {
+        return obtener(apiUrl + "?sort=ascending" + (pagina <= 1 ? "" : "&page=" + pagina), "pagina");
+    }
+
+    /**
+     * Obtiene los libros con esos ids de Gutenberg; la API devuelve hasta 32 por página
+     */
+    public CompletableFuture<PaginaGutendex> obtenerPorIds(Collection<Integer> ids) {
+        return obtener(apiUrl + "?ids=" + ids.stream().map(String::valueOf).collect(Collectors.joining(",")), "ids");
+    }
+
+    InterruptorCircuito.Estado estadoCircuito() {
+        return circuito.getEstado();
+    }
+
+    private CompletableFuture<PaginaGutendex> obtener(String url, String operacion) {
+        if (!circuito.permitirLlamada()) {
+            rechazadas.increment();
+            return CompletableFuture.failedFuture(
+                new GutendexException("API de Gutenberg no disponible temporalmente (circuito abierto)", 0));
+        }
+        // Una respuesta 4xx indica que el servicio responde: solo los fallos del servicio abren el circuito
+        return intentar(url, operacion, 1).whenComplete((respuesta, error) -> {
+            if (error == null || !comoGutendexException(error).esFalloDelServicio()) {
+                circuito.registrarExito();
+            } else {
+                circuito.registrarFallo();
+            }
+        });
+    }
+
+    private CompletableFuture<PaginaGutendex> intentar(String url, String operacion, int intento) {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(url))
+            .timeout(timeoutRespuesta)
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+
+        Timer.Sample muestra = Timer.start(registro);
+        return httpClient.sendAsync(peticion, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(this::leerRespuesta)
+            .handle((respuesta, error) -> {
+                if (error == null) {
+                    muestra.stop(timerPeticiones(operacion, "200"));
+                    return CompletableFuture.completedFuture(respuesta);
+                }
+                GutendexException fallo = comoGutendexException(error);
+                muestra.stop(timerPeticiones(operacion, fallo.getEstado() > 0 ? String.valueOf(fallo.getEstado()) : "error"));
+                if (!fallo.esReintentable() || intento >= intentos) {
+                    return CompletableFuture.<PaginaGutendex>failedFuture(fallo);
+                }
+                return CompletableFuture.supplyAsync(() -> null,
+                        CompletableFuture.delayedExecutor(calcularEspera(intento), TimeUnit.MILLISECONDS))
+                    .thenCompose(ignorado -> intentar(url, operacion, intento + 1));
+            })
+            .thenCompose(resultado -> resultado);
+    }
+
+    private Timer timerPeticiones(String operacion, String estado) {
+        return Timer.builder("literalura.gutendex.peticiones")
+            .description("Duración de cada intento de llamada a la API de Gutenberg")
+            .tag("operacion", operacion)
+            .tag("estado", estado)
+            .publishPercentileHistogram()
+            .register(registro);
+    }
+
+    private PaginaGutendex leerRespuesta(HttpResponse<byte[]> respuesta) {
+        if (respuesta.statusCode() != 200) {
+            throw new GutendexException("La API respondió con estado " + respuesta.statusCode(), respuesta.statusCode());
+        }
+        try {
+            return lector.leer(respuesta.body());
+        } catch (IOException e) {
+            throw new GutendexException("Respuesta de la API no válida", e);
+        }
+    }
+
+    /**
+     * Espera exponencial con jitter completo: un valor aleatorio entre 0 y base * 2^(intento - 1)
+     */
+    private long calcularEspera(int intento) {
+        long maximo = esperaBase.toMillis() << Math.min(intento - 1, 10);
+        return ThreadLocalRandom.current().nextLong(maximo + 1);
+    }
+
+    private GutendexException comoGutendexException(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (causa instanceof GutendexException gutendexException) {
+            return gutendexException;
+        }
+        return new GutendexException("Error de conexión con la API: " + causa, causa);
+    }
+}
@@ -0,0 +1,39 @@
+package com.alura.literAlura_challenge;
+
+/**
+ * Error al consultar la API de Gutenberg
+ */
+public class GutendexException extends RuntimeException {
+
+    // Código HTTP de la respuesta, o 0 si no se llegó a recibir respuesta
+    private final int estado;
+
+    public GutendexException(String mensaje, int estado) {
+        super(mensaje);
+        this.estado = estado;
+    }
+
+    public GutendexException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+        this.estado = 0;
+    }
+
+    public int getEstado() {
+        return estado;
+    }
+
+    /**
+     * Indica si vale la pena reintentar: límite de peticiones, errores del servidor o fallos de red
+     */
+    public boolean esReintentable() {
+        return estado == 0 || estado == 429 || estado >= 500;
+    }
+
+    /**
+     * Indica si el error es del servicio y no de la petición: errores del servidor, tiempos agotados
+     * o fallos de red. Son los únicos que cuentan para abrir el circuito
+     */
+    public boolean esFalloDelServicio() {
+        return estado == 0 || estado >= 500;
+    }
+}
@@ -0,0 +1,138 @@
+package com.alura.literAlura_challenge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Carga en la BD un catálogo de Project Gutenberg guardado en disco (pg_catalog.csv), sin usar la red.
+ * Un único lector separa los registros en bloques, varios hilos los convierten en paralelo y los bloques
+ * convertidos se guardan en orden con {@link IngestaLibrosService}, en una transacción por bloque con
+ * inserciones en batch. Los libros ya registrados (por id de Gutenberg) se omiten, así que importar dos
+ * veces el mismo archivo no duplica nada.
+ */
+@Service
+public class ImportacionCatalogoService {
+    private static final Logger log = LoggerFactory.getLogger(ImportacionCatalogoService.class);
+
+    // Registros por bloque: es la unidad de conversión en paralelo y la transacción de guardado
+    static final int TAMANO_BLOQUE = 1000;
+
+    @Autowired
+    private IngestaLibrosService ingestaLibrosService;
+
+    @Value("${literalura.importacion.hilos:4}")
+    private int hilos;
+
+    private final AtomicBoolean enCurso = new AtomicBoolean(false);
+
+    /**
+     * Importa el catálogo del archivo indicado
+     * @param archivo CSV con el formato de pg_catalog.csv, en UTF-8
+     * @return Resumen de los registros leídos y los libros guardados
+     */
+    public ResultadoImportacion importar(Path archivo) {
+        if (!enCurso.compareAndSet(false, true)) {
+            return new ResultadoImportacion(0, 0, 0, "Ya hay una importación en curso");
+        }
+        AtomicInteger contadorHilos = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, hilos), tarea -> {
+            Thread hilo = new Thread(tarea, "importacion-" + contadorHilos.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long inicio = System.nanoTime();
+        try (BufferedReader entrada = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            ResultadoImportacion resultado = importar(new LectorCatalogoCsv(entrada), executor);
+            log.info("Catálogo importado desde {}: {} registros, {} libros nuevos en {} ms", archivo,
+                resultado.registrosLeidos(), resultado.librosGuardados(), (System.nanoTime() - inicio) / 1_000_000);
+            return resultado;
+        } catch (IOException | IllegalArgumentException e) {
+            return new ResultadoImportacion(0, 0, 0, "No se pudo leer " + archivo + ": " + e.getMessage());
+        } finally {
+            executor.shutdownNow();
+            enCurso.set(false);
+        }
+    }
+
+    /**
+     * Mantiene hasta dos bloques por hilo en conversión mientras guarda el más antiguo, así la lectura
+     * y la conversión avanzan durante las escrituras sin acumular el archivo entero en memoria
+     */
+    private ResultadoImportacion importar(LectorCatalogoCsv lector, ExecutorService executor) throws IOException {
+        int maximoPendientes = Math.max(1, hilos) * 2;
+        Deque<BloqueEnConversion> pendientes = new ArrayDeque<>();
+        int[] totales = new int[3];
+        try {
+            List<String> registros;
+            while (!(registros = lector.siguienteBloque(TAMANO_BLOQUE)).isEmpty()) {
+                List<String> bloque = registros;
+                pendientes.add(new BloqueEnConversion(bloque.size(), executor.submit(() -> convertir(lector, bloque))));
+                if (pendientes.size() >= maximoPendientes) {
+                    guardar(pendientes.poll(), totales);
+                }
+            }
+            while (!pendientes.isEmpty()) {
+                guardar(pendientes.poll(), totales);
+            }
+            return new ResultadoImportacion(totales[0], totales[1], totales[2], null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ResultadoImportacion(totales[0], totales[1], totales[2], "Importación interrumpida");
+        } catch (ExecutionException | RuntimeException e) {
+            Throwable causa = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            return new ResultadoImportacion(totales[0], totales[1], totales[2], "Error al importar: " + causa.getMessage());
+        }
+    }
+
+    private static List<Libro> convertir(LectorCatalogoCsv lector, List<String> registros) {
+        List<LibroGutendex> libros = lector.convertir(registros);
+        List<Libro> entidades = new ArrayList<>(libros.size());
+        for (LibroGutendex libro : libros) {
+            entidades.add(libro.aEntidad());
+        }
+        return entidades;
+    }
+
+    /**
+     * @param totales Registros leídos, libros guardados y registros descartados hasta ahora
+     */
+    private void guardar(BloqueEnConversion bloque, int[] totales) throws InterruptedException, ExecutionException {
+        List<Libro> libros = bloque.libros().get();
+        totales[1] += ingestaLibrosService.guardarNuevos(libros).size();
+        totales[0] += bloque.registros();
+        totales[2] += bloque.registros() - libros.size();
+    }
+
+    private record BloqueEnConversion(int registros, Future<List<Libro>> libros) {
+    }
+
+    /**
+     * Resumen de una importación
+     * @param registrosDescartados Registros sin id numérico o sin título
+     * @param error Motivo por el que se detuvo, o null si leyó todo el archivo
+     */
+    public record ResultadoImportacion(int registrosLeidos, int librosGuardados, int registrosDescartados, String error) {
+
+        public boolean completa() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package com.alura.literAlura_challenge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Autocompletado de títulos y autores con tolerancia a errores de tipeo.
+ * Las palabras de todos los títulos y nombres forman un trie; cada nodo guarda los
+ * {@value #MEJORES_POR_NODO} textos más descargados que tienen una palabra con ese prefijo.
+ * Una consulta recorre el trie calculando la distancia de edición fila por fila (la última palabra
+ * se toma como prefijo), junta los mejores de los nodos alcanzados y verifica cada candidato,
+ * así el costo depende del largo de la consulta y no del tamaño del catálogo.
+ * Ocupa memoria en proporción al catálogo; se desactiva con literalura.sugerencias.habilitado=false
+ */
+@Component
+@ConditionalOnProperty(name = "literalura.sugerencias.habilitado", havingValue = "true", matchIfMissing = true)
+public class IndiceSugerencias {
+    private static final Logger log = LoggerFactory.getLogger(IndiceSugerencias.class);
+
+    static final int MEJORES_POR_NODO = 10;
+    static final String TITULO = "titulo";
+    static final String AUTOR = "autor";
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    // Límite de nodos por palabra de la consulta, para que un prefijo corto con errores no recorra medio trie
+    private static final int MAXIMO_NODOS_POR_PALABRA = 64;
+    // Textos que se verifican como máximo desde las palabras completas de la consulta (los más descargados)
+    private static final int MAXIMO_VERIFICADOS = 1024;
+    private static final Nodo[] SIN_PALABRAS = new Nodo[0];
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final Nodo raiz = new Nodo(null);
+
+    // Textos sugeridos: el índice de cada arreglo identifica el texto en los nodos del trie
+    private int cantidadTextos;
+    private String[] textos = new String[1024];
+    private boolean[] esAutor = new boolean[1024];
+    private long[] pesos = new long[1024];
+    // Nodos donde terminan las palabras de cada texto, para verificar candidatos sin volver a separar el texto
+    private Nodo[][] palabrasDeTexto = new Nodo[1024][];
+    private final Map<String, Integer> indicesTitulo = new HashMap<>();
+    private final Map<String, Integer> indicesAutor = new HashMap<>();
+    // Palabras cuyos textos hay que volver a ordenar por peso al terminar la escritura
+    private final List<Nodo> pendientesDeOrdenar = new ArrayList<>();
+
+    /**
+     * Sugerencia de autocompletado; peso es la cantidad de descargas (sumadas por autor)
+     */
+    public record Sugerencia(String texto, String tipo, long peso) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Async
+    @Transactional(readOnly = true)
+    public void cargar() {
+        long inicio = System.nanoTime();
+        try (Stream<FilaExportacion> filas = libroRepository.leerCatalogoParaExportar()) {
+            candado.writeLock().lock();
+            try {
+                long[] ultimoLibro = {-1};
+                filas.forEach(fila -> {
+                    long descargas = fila.numeroDescargas() != null ? fila.numeroDescargas() : 0;
+                    // Cada libro llega una vez por autor: el título se cuenta solo en la primera fila
+                    if (fila.libroId() != ultimoLibro[0]) {
+                        agregarTexto(fila.titulo(), false, descargas);
+                        ultimoLibro[0] = fila.libroId();
+                    }
+                    if (fila.autor() != null) {
+                        agregarTexto(fila.autor(), true, descargas);
+                    }
+                });
+                ordenarPendientes();
+            } finally {
+                candado.writeLock().unlock();
+            }
+        }
+        log.info("Índice de sugerencias cargado: {} textos en {} ms", cantidadTextos, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @TransactionalEventListener
+    public void alGuardarLibros(LibrosGuardadosEvent evento) {
+        agregar(evento.libros());
+    }
+
+    void agregar(List<Libro> libros) {
+        candado.writeLock().lock();
+        try {
+            for (Libro libro : libros) {
+                long descargas = libro.getNumeroDescargas() != null ? libro.getNumeroDescargas() : 0;
+                agregarTexto(libro.getTitulo(), false, descargas);
+                libro.getAutores().forEach(autor -> agregarTexto(autor.getNombre(), true, descargas));
+            }
+            ordenarPendientes();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public int cantidadTextos() {
+        return cantidadTextos;
+    }
+
+    // Un título repetido conserva el mayor peso; un autor repetido suma las descargas de sus libros
+    private void agregarTexto(String texto, boolean autor, long descargas) {
+        if (texto == null || texto.isBlank()) {
+            return;
+        }
+        Map<String, Integer> indices = autor ? indicesAutor : indicesTitulo;
+        Integer existente = indices.get(texto);
+        if (existente != null) {
+            int id = existente;
+            long peso = autor ? pesos[id] + descargas : Math.max(pesos[id], descargas);
+            if (peso != pesos[id]) {
+                pesos[id] = peso;
+                // Con más peso puede entrar en los mejores de los nodos de sus palabras y de sus prefijos
+                for (Nodo palabra : palabrasDeTexto[id]) {
+                    for (Nodo nodo = palabra; nodo != raiz; nodo = nodo.padre) {
+                        nodo.considerar(id, pesos);
+                    }
+                    marcarDesordenado(palabra);
+                }
+            }
+            return;
+        }
+        if (cantidadTextos == textos.length) {
+            int capacidad = textos.length * 2;
+            textos = Arrays.copyOf(textos, capacidad);
+            esAutor = Arrays.copyOf(esAutor, capacidad);
+            pesos = Arrays.copyOf(pesos, capacidad);
+            palabrasDeTexto = Arrays.copyOf(palabrasDeTexto, capacidad);
+        }
+        int id = cantidadTextos++;
+        textos[id] = texto;
+        esAutor[id] = autor;
+        pesos[id] = descargas;
+        indices.put(texto, id);
+        List<Nodo> finales = new ArrayList<>();
+        for (String palabra : palabras(texto)) {
+            Nodo nodo = raiz;
+            for (int i = 0; i < palabra.length(); i++) {
+                nodo = nodo.hijoCreando(palabra.charAt(i));
+                nodo.considerar(id, pesos);
+            }
+            if (nodo.agregarTexto(id)) {
+                finales.add(nodo);
+                marcarDesordenado(nodo);
+            }
+        }
+        palabrasDeTexto[id] = finales.toArray(SIN_PALABRAS);
+    }
+
+    private void marcarDesordenado(Nodo palabra) {
+        if (!palabra.textosDesordenados) {
+            palabra.textosDesordenados = true;
+            pendientesDeOrdenar.add(palabra);
+        }
+    }
+
+    // Se ordena una vez por lote y no en cada inserción: una palabra común puede estar en miles de textos
+    private void ordenarPendientes() {
+        pendientesDeOrdenar.forEach(palabra -> palabra.ordenarTextos(pesos));
+        pendientesDeOrdenar.clear();
+    }
+
+    /**
+     * Sugerencias para lo que el usuario lleva escrito. Cada palabra admite 1 error de tipeo
+     * desde 4 letras y 2 desde 8; la última puede estar incompleta
+     * @param consulta Texto escrito hasta ahora
+     * @param limite Cantidad máxima de sugerencias
+     * @return Sugerencias ordenadas por cercanía y después por descargas
+     */
+    public List<Sugerencia> sugerir(String consulta, int limite) {
+        List<String> buscadas = palabras(consulta);
+        if (buscadas.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        candado.readLock().lock();
+        try {
+            List<Cercanos> cercanos = new ArrayList<>(buscadas.size());
+            for (int i = 0; i < buscadas.size(); i++) {
+                cercanos.add(nodosCercanos(buscadas.get(i), i == buscadas.size() - 1));
+            }
+
+            // Candidatos: los mejores de cada nodo alcanzado por la palabra incompleta y, si hay palabras
+            // completas, los textos de la más selectiva (la que aparece en menos textos)
+            Set<Integer> vistos = new HashSet<>();
+            List<long[]> aceptados = new ArrayList<>();
+            for (Nodo nodo : cercanos.get(cercanos.size() - 1).distancias().keySet()) {
+                for (int j = 0; j < nodo.cantidadMejores; j++) {
+                    verificar(nodo.mejores[j], cercanos, vistos, aceptados);
+                }
+            }
+            Cercanos masSelectiva = null;
+            int menorCantidad = Integer.MAX_VALUE;
+            for (int i = 0; i < cercanos.size() - 1; i++) {
+                int cantidad = cercanos.get(i).distancias().keySet().stream().mapToInt(nodo -> nodo.cantidadTextosPalabra).sum();
+                if (cantidad < menorCantidad) {
+                    menorCantidad = cantidad;
+                    masSelectiva = cercanos.get(i);
+                }
+            }
+            if (masSelectiva != null) {
+                // Primero la palabra exacta y después las variantes; los textos de cada una, por peso. Con
+                // limite coincidencias exactas desde aquí ningún texto restante puede quedar antes
+                List<Nodo> porDistancia = new ArrayList<>(masSelectiva.distancias().keySet());
+                porDistancia.sort(Comparator.comparing(masSelectiva.distancias()::get));
+                int exactos = 0;
+                recorrido:
+                for (Nodo nodo : porDistancia) {
+                    for (int j = 0; j < nodo.cantidadTextosPalabra; j++) {
+                        if (exactos >= limite || vistos.size() >= MAXIMO_VERIFICADOS) {
+                            break recorrido;
+                        }
+                        int distancia = verificar(nodo.textosPalabra[j], cercanos, vistos, aceptados);
+                        if (distancia == 0) {
+                            exactos++;
+                        }
+                    }
+                }
+            }
+
+            aceptados.sort(Comparator.<long[]>comparingLong(a -> a[1])
+                .thenComparing(a -> pesos[(int) a[0]], Comparator.reverseOrder())
+                .thenComparing(a -> textos[(int) a[0]]));
+            List<Sugerencia> sugerencias = new ArrayList<>(Math.min(limite, aceptados.size()));
+            for (int i = 0; i < aceptados.size() && i < limite; i++) {
+                int id = (int) aceptados.get(i)[0];
+                sugerencias.add(new Sugerencia(textos[id], esAutor[id] ? AUTOR : TITULO, pesos[id]));
+            }
+            return sugerencias;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Agrega el texto a los aceptados si contiene todas las palabras buscadas; devuelve su distancia o -1
+    private int verificar(int id, List<Cercanos> cercanos, Set<Integer> vistos, List<long[]> aceptados) {
+        if (!vistos.add(id)) {
+            return -1;
+        }
+        int distancia = distanciaTotal(palabrasDeTexto[id], cercanos);
+        if (distancia >= 0) {
+            aceptados.add(new long[] {id, distancia});
+        }
+        return distancia;
+    }
+
+    static int erroresPermitidos(String palabra) {
+        return palabra.length() >= 8 ? 2 : palabra.length() >= 4 ? 1 : 0;
+    }
+
+    /**
+     * Nodos del trie a distancia de edición permitida de la palabra, con su distancia. Para una palabra
+     * completa son los que terminan una palabra; para un prefijo, los que cubren un subárbol cuyas palabras
+     * empiezan con un prefijo aceptable (y los más profundos solo si mejoran la distancia)
+     */
+    private Cercanos nodosCercanos(String palabra, boolean prefijo) {
+        int maximo = erroresPermitidos(palabra);
+        int[] fila = new int[palabra.length() + 1];
+        for (int i = 0; i < fila.length; i++) {
+            fila[i] = i;
+        }
+        Map<Nodo, Integer> encontrados = new LinkedHashMap<>();
+        for (int i = 0; i < raiz.cantidadHijos && encontrados.size() < MAXIMO_NODOS_POR_PALABRA; i++) {
+            recorrer(raiz.hijos[i], raiz.letras[i], (char) 0, palabra, fila, null, maximo + 1, maximo, prefijo, encontrados);
+        }
+        int profundidadMinima = Integer.MAX_VALUE;
+        int profundidadMaxima = 0;
+        for (Nodo nodo : encontrados.keySet()) {
+            profundidadMinima = Math.min(profundidadMinima, nodo.profundidad);
+            profundidadMaxima = Math.max(profundidadMaxima, nodo.profundidad);
+        }
+        return new Cercanos(encontrados, profundidadMinima, profundidadMaxima);
+    }
+
+    /**
+     * Nodos alcanzados por una palabra de la consulta con su distancia, y entre qué profundidades están
+     */
+    private record Cercanos(Map<Nodo, Integer> distancias, int profundidadMinima, int profundidadMaxima) {
+    }
+
+    // Una fila de la distancia de edición por letra, contando como un error el intercambio de dos letras vecinas
+    private void recorrer(Nodo nodo, char letra, char letraAnterior, String palabra, int[] filaAnterior,
+                          int[] filaAntesDeAnterior, int distanciaCubierta, int maximo, boolean prefijo,
+                          Map<Nodo, Integer> encontrados) {
+        int columnas = palabra.length() + 1;
+        int[] fila = new int[columnas];
+        fila[0] = filaAnterior[0] + 1;
+        int minimo = fila[0];
+        for (int i = 1; i < columnas; i++) {
+            int sustitucion = filaAnterior[i - 1] + (palabra.charAt(i - 1) == letra ? 0 : 1);
+            fila[i] = Math.min(sustitucion, Math.min(fila[i - 1] + 1, filaAnterior[i] + 1));
+            if (filaAntesDeAnterior != null && i > 1 && palabra.charAt(i - 1) == letraAnterior
+                && palabra.charAt(i - 2) == letra) {
+                fila[i] = Math.min(fila[i], filaAntesDeAnterior[i - 2] + 1);
+            }
+            minimo = Math.min(minimo, fila[i]);
+        }
+        int distancia = fila[columnas - 1];
+        if (prefijo && distancia < distanciaCubierta) {
+            encontrados.put(nodo, distancia);
+            distanciaCubierta = distancia;
+        } else if (!prefijo && distancia <= maximo && nodo.cantidadTextosPalabra > 0) {
+            encontrados.put(nodo, distancia);
+        }
+        if (minimo > maximo || distanciaCubierta == 0) {
+            return;
+        }
+        for (int i = 0; i < nodo.cantidadHijos && encontrados.size() < MAXIMO_NODOS_POR_PALABRA; i++) {
+            recorrer(nodo.hijos[i], nodo.letras[i], letra, palabra, fila, filaAnterior, distanciaCubierta, maximo,
+                prefijo, encontrados);
+        }
+    }
+
+    /**
+     * Suma de errores con que cada palabra buscada aparece entre las palabras del texto, o -1 si alguna
+     * no aparece. La última se busca entre los prefijos de cada palabra, subiendo por el trie solo
+     * entre las profundidades de los nodos alcanzados
+     */
+    private static int distanciaTotal(Nodo[] delTexto, List<Cercanos> cercanos) {
+        int total = 0;
+        for (int i = 0; i < cercanos.size(); i++) {
+            Cercanos nodos = cercanos.get(i);
+            boolean prefijo = i == cercanos.size() - 1;
+            int mejor = Integer.MAX_VALUE;
+            for (Nodo palabra : delTexto) {
+                Nodo nodo = palabra;
+                while (prefijo && nodo.profundidad > nodos.profundidadMaxima()) {
+                    nodo = nodo.padre;
+                }
+                for (; nodo.profundidad >= nodos.profundidadMinima(); nodo = nodo.padre) {
+                    Integer distancia = nodos.distancias().get(nodo);
+                    if (distancia != null) {
+                        mejor = Math.min(mejor, distancia);
+                    }
+                    if (!prefijo) {
+                        break;
+                    }
+                }
+            }
+            if (mejor == Integer.MAX_VALUE) {
+                return -1;
+            }
+            total += mejor;
+        }
+        return total;
+    }
+
+    /**
+     * Palabras del texto en minúsculas y sin tildes, para que "Garcia" encuentre "García"
+     */
+    static List<String> palabras(String texto) {
+        if (texto == null) {
+            return List.of();
+        }
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        List<String> palabras = new ArrayList<>();
+        for (String palabra : SEPARADOR.split(normalizado)) {
+            if (!palabra.isEmpty()) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    /**
+     * Nodo del trie con los hijos en arreglos ordenados por letra, los mejores textos de su subárbol
+     * y, si una palabra termina en él, todos los textos que la contienen
+     */
+    private static final class Nodo {
+        private static final char[] SIN_LETRAS = new char[0];
+        private static final Nodo[] SIN_HIJOS = new Nodo[0];
+
+        final Nodo padre;
+        final int profundidad;
+        char[] letras = SIN_LETRAS;
+        Nodo[] hijos = SIN_HIJOS;
+        int cantidadHijos;
+        int[] mejores;
+        int cantidadMejores;
+        int[] textosPalabra;
+        int cantidadTextosPalabra;
+        boolean textosDesordenados;
+
+        Nodo(Nodo padre) {
+            this.padre = padre;
+            this.profundidad = padre == null ? 0 : padre.profundidad + 1;
+        }
+
+        Nodo hijoCreando(char letra) {
+            int posicion = Arrays.binarySearch(letras, 0, cantidadHijos, letra);
+            if (posicion >= 0) {
+                return hijos[posicion];
+            }
+            posicion = -(posicion + 1);
+            if (cantidadHijos == letras.length) {
+                int capacidad = Math.max(2, letras.length * 2);
+                letras = Arrays.copyOf(letras, capacidad);
+                hijos = Arrays.copyOf(hijos, capacidad);
+            }
+            System.arraycopy(letras, posicion, letras, posicion + 1, cantidadHijos - posicion);
+            System.arraycopy(hijos, posicion, hijos, posicion + 1, cantidadHijos - posicion);
+            Nodo hijo = new Nodo(this);
+            letras[posicion] = letra;
+            hijos[posicion] = hijo;
+            cantidadHijos++;
+            return hijo;
+        }
+
+        // Una palabra repetida en el mismo texto ya está al final: se ordena recién al terminar el lote
+        boolean agregarTexto(int id) {
+            if (textosPalabra == null) {
+                textosPalabra = new int[2];
+            } else if (textosPalabra[cantidadTextosPalabra - 1] == id) {
+                return false;
+            } else if (cantidadTextosPalabra == textosPalabra.length) {
+                textosPalabra = Arrays.copyOf(textosPalabra, cantidadTextosPalabra * 2);
+            }
+            textosPalabra[cantidadTextosPalabra++] = id;
+            return true;
+        }
+
+        // Por peso descendente: cada texto se empaqueta con su peso en un long para ordenar sin objetos
+        void ordenarTextos(long[] pesos) {
+            long[] claves = new long[cantidadTextosPalabra];
+            for (int i = 0; i < cantidadTextosPalabra; i++) {
+                int id = textosPalabra[i];
+                claves[i] = (long) (Integer.MAX_VALUE - (int) Math.min(pesos[id], Integer.MAX_VALUE)) << 32 | id;
+            }
+            Arrays.sort(claves);
+            for (int i = 0; i < cantidadTextosPalabra; i++) {
+                textosPalabra[i] = (int) claves[i];
+            }
+            textosDesordenados = false;
+        }
+
+        // Mantiene los mejores ordenados por peso descendente, sin repetir
+        void considerar(int id, long[] pesos) {
+            if (mejores == null) {
+                mejores = new int[MEJORES_POR_NODO];
+            }
+            int actual = -1;
+            for (int i = 0; i < cantidadMejores; i++) {
+                if (mejores[i] == id) {
+                    actual = i;
+                    break;
+                }
+            }
+            if (actual < 0) {
+                if (cantidadMejores < MEJORES_POR_NODO) {
+                    actual = cantidadMejores++;
+                } else if (pesos[mejores[cantidadMejores - 1]] < pesos[id]) {
+                    actual = cantidadMejores - 1;
+                } else {
+                    return;
+                }
+                mejores[actual] = id;
+            }
+            // El peso solo crece: el texto sube hasta su lugar
+            while (actual > 0 && pesos[mejores[actual - 1]] < pesos[mejores[actual]]) {
+                int anterior = mejores[actual - 1];
+                mejores[actual - 1] = mejores[actual];
+                mejores[actual] = anterior;
+                actual--;
+            }
+        }
+    }
+}
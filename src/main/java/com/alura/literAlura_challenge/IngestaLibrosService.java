@@ -0,0 +1,398 @@
+package com.alura.literAlura_challenge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Service
+public class IngestaLibrosService {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestaLibrosService.class);
+
+    // Límite de parámetros por cada consulta IN al verificar existencia
+    private static final int TAMANO_LOTE_CONSULTA = 1000;
+    // Intentos de un lote que choca con el índice único por una ingesta concurrente
+    private static final int INTENTOS_POR_CONFLICTO = 3;
+    // SQLState de clave única repetida (PostgreSQL y H2)
+    private static final String CLAVE_REPETIDA = "23505";
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private AutorRepository autorRepository;
+
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Counter librosGuardados;
+    private Counter librosDuplicados;
+    private Counter librosFallidos;
+    private Counter conflictos;
+
+    @PostConstruct
+    void registrarMetricas() {
+        librosGuardados = contadorLibros("guardado");
+        librosDuplicados = contadorLibros("duplicado");
+        librosFallidos = contadorLibros("fallido");
+        conflictos = Counter.builder("literalura.ingesta.conflictos")
+            .description("Lotes revertidos por chocar con una ingesta concurrente y vueltos a intentar")
+            .register(registro);
+    }
+
+    private Counter contadorLibros(String resultado) {
+        return Counter.builder("literalura.ingesta.libros")
+            .description("Libros recibidos para guardar, según el resultado de su transacción")
+            .tag("resultado", resultado)
+            .register(registro);
+    }
+
+    /**
+     * Guarda los libros que todavía no existen en la BD en una sola transacción.
+     * Un libro ya existe si está registrado su id de Gutenberg (índice único) o, si no trae id, su título;
+     * a los que ya existen por id se les renueva la fecha de actualización.
+     * La existencia se resuelve con una consulta por lote (no una por libro) y
+     * las inserciones se agrupan en batch por Hibernate. Los libros insertados se publican en un
+     * {@link LibrosGuardadosEvent}.
+     * <p>
+     * Si otra ingesta concurrente guarda los mismos libros o autores entre la verificación y el INSERT,
+     * el índice único rechaza la transacción y el lote completo se vuelve a intentar: en el nuevo intento
+     * esos libros ya figuran como existentes. Si la BD rechaza el lote por otro motivo (un dato que no
+     * admite, como un título demasiado largo), se guarda por mitades hasta aislar los libros rechazados,
+     * que se descartan. Dentro de una transacción ajena no se reintenta ni se separa.
+     * @param libros Libros candidatos sin persistir, pueden venir de una o varias páginas de la API
+     * @return Lista de libros efectivamente insertados
+     */
+    public List<Libro> guardarNuevos(List<Libro> libros) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return guardarEnTransaccion(libros, true);
+        }
+        Map<Libro, List<Autor>> autoresRecibidos = new HashMap<>();
+        libros.forEach(libro -> autoresRecibidos.put(libro, new ArrayList<>(libro.getAutores())));
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(estado -> guardarEnTransaccion(libros, false));
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+                restaurar(autoresRecibidos);
+                if (!esConflicto(e)) {
+                    return guardarPorMitades(libros, e);
+                }
+                if (intento == INTENTOS_POR_CONFLICTO) {
+                    librosFallidos.increment(libros.size());
+                    throw e;
+                }
+                conflictos.increment();
+                log.debug("Conflicto al guardar {} libros, intento {}: {}", libros.size(), intento, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Un lote rechazado por sus datos fallaría en cada intento: se guarda cada mitad por separado
+     * y el libro que la BD rechaza solo se descarta
+     */
+    private List<Libro> guardarPorMitades(List<Libro> libros, DataAccessException error) {
+        if (libros.size() == 1) {
+            librosFallidos.increment();
+            log.warn("Libro descartado, la BD lo rechazó (id de Gutenberg {}): {}", libros.get(0).getGutenbergId(),
+                error.getMostSpecificCause().getMessage());
+            return new ArrayList<>();
+        }
+        int mitad = libros.size() / 2;
+        List<Libro> insertados = new ArrayList<>(guardarNuevos(libros.subList(0, mitad)));
+        insertados.addAll(guardarNuevos(libros.subList(mitad, libros.size())));
+        return insertados;
+    }
+
+    /**
+     * @return true si el error viene de otra transacción (clave única repetida por una ingesta concurrente,
+     * bloqueo mutuo) y el mismo lote puede guardarse al reintentar
+     */
+    static boolean esConflicto(DataAccessException error) {
+        if (error instanceof ConcurrencyFailureException || error instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLException sql && CLAVE_REPETIDA.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Libro> guardarEnTransaccion(List<Libro> libros, boolean contarFallo) {
+        int[] guardados = {0};
+        contarAlTerminar(libros.size(), guardados, contarFallo);
+
+        // Descartar los libros sin título y los repetidos dentro del mismo lote: por id de Gutenberg o, si no lo traen, por título
+        Map<Integer, Libro> porGutenbergId = new LinkedHashMap<>();
+        Map<String, Libro> porTitulo = new LinkedHashMap<>();
+        for (Libro libro : libros) {
+            if (libro.getTitulo() == null) {
+                continue;
+            }
+            if (libro.getGutenbergId() != null) {
+                porGutenbergId.putIfAbsent(libro.getGutenbergId(), libro);
+            } else {
+                porTitulo.putIfAbsent(libro.getTitulo(), libro);
+            }
+        }
+        if (porGutenbergId.isEmpty() && porTitulo.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Libro> nuevos = new ArrayList<>();
+        if (!porGutenbergId.isEmpty()) {
+            porGutenbergId.keySet().removeAll(marcarActualizados(new ArrayList<>(porGutenbergId.keySet())));
+            nuevos.addAll(porGutenbergId.values());
+            nuevos.removeAll(asignarGutenbergIdALegados(nuevos));
+        }
+        if (!porTitulo.isEmpty()) {
+            Set<String> existentes = buscarExistentes(new ArrayList<>(porTitulo.keySet()),
+                libroRepository::findTitulosExistentes);
+            porTitulo.forEach((titulo, libro) -> {
+                if (!existentes.contains(titulo)) {
+                    nuevos.add(libro);
+                }
+            });
+        }
+
+        resolverAutores(nuevos);
+        List<Libro> insertados = libroRepository.saveAll(nuevos);
+        // Forzar los INSERT aquí para que un conflicto con el índice único se traduzca y se pueda reintentar
+        libroRepository.flush();
+        estadisticasService.registrarLibros(insertados);
+        guardados[0] = insertados.size();
+        if (!insertados.isEmpty()) {
+            eventos.publishEvent(new LibrosGuardadosEvent(insertados));
+        }
+        return insertados;
+    }
+
+    /**
+     * Renueva la fecha de actualización de los libros ya registrados que la API volvió a devolver: así una búsqueda
+     * remota deja vigentes sus coincidencias locales y la siguiente se responde desde la BD. Se cargan con una
+     * consulta por lote y se modifican como entidades, para que la caché de segundo nivel descarte solo esos libros
+     * @return Ids de Gutenberg que ya estaban registrados
+     */
+    private Set<Integer> marcarActualizados(List<Integer> gutenbergIds) {
+        LocalDateTime ahora = LocalDateTime.now();
+        Set<Integer> existentes = new HashSet<>();
+        for (int i = 0; i < gutenbergIds.size(); i += TAMANO_LOTE_CONSULTA) {
+            for (Libro libro : libroRepository.findByGutenbergIdIn(
+                    gutenbergIds.subList(i, Math.min(i + TAMANO_LOTE_CONSULTA, gutenbergIds.size())))) {
+                existentes.add(libro.getGutenbergId());
+                libro.setActualizadoEn(ahora);
+            }
+        }
+        return existentes;
+    }
+
+    /**
+     * A los libros guardados antes de registrar el id de Gutenberg les asigna el de un libro recibido
+     * con el mismo título, en vez de insertarlo otra vez. Solo consulta títulos mientras queden libros sin id
+     * @return Libros recibidos que ya estaban guardados sin id
+     */
+    private List<Libro> asignarGutenbergIdALegados(List<Libro> recibidos) {
+        if (recibidos.isEmpty() || !libroRepository.existsByGutenbergIdIsNull()) {
+            return List.of();
+        }
+        Map<String, Libro> legadosPorTitulo = new HashMap<>();
+        List<String> titulos = recibidos.stream().map(Libro::getTitulo).distinct().toList();
+        for (int i = 0; i < titulos.size(); i += TAMANO_LOTE_CONSULTA) {
+            List<String> lote = titulos.subList(i, Math.min(i + TAMANO_LOTE_CONSULTA, titulos.size()));
+            libroRepository.findByGutenbergIdIsNullAndTituloIn(lote)
+                .forEach(legado -> legadosPorTitulo.putIfAbsent(legado.getTitulo(), legado));
+        }
+        List<Libro> asignados = new ArrayList<>();
+        for (Libro recibido : recibidos) {
+            Libro legado = legadosPorTitulo.remove(recibido.getTitulo());
+            if (legado != null) {
+                legado.setGutenbergId(recibido.getGutenbergId());
+                legado.setActualizadoEn(LocalDateTime.now());
+                asignados.add(recibido);
+            }
+        }
+        return asignados;
+    }
+
+    /**
+     * Devuelve los libros recibidos al estado previo a un intento revertido: sin id y con sus autores originales
+     * (también sin id, ya que los que se insertaron no quedaron guardados)
+     */
+    private static void restaurar(Map<Libro, List<Autor>> autoresRecibidos) {
+        autoresRecibidos.forEach((libro, autores) -> {
+            libro.setId(null);
+            autores.forEach(autor -> autor.setId(null));
+            libro.setAutores(new ArrayList<>(autores));
+        });
+    }
+
+    /**
+     * Guarda las descargas nuevas de libros ya registrados. Solo se cargan y escriben esos libros
+     * (Hibernate agrupa los UPDATE en batch), las estadísticas se ajustan con la diferencia y los
+     * cambios se publican en un {@link DescargasActualizadasEvent}
+     * @param descargasPorLibro Descargas nuevas indexadas por id del libro, solo de los que cambiaron
+     * @return Cantidad de libros actualizados
+     */
+    @Transactional
+    public int actualizarDescargas(Map<Long, Integer> descargasPorLibro) {
+        if (descargasPorLibro.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<Libro, Long> diferencias = new LinkedHashMap<>();
+        Map<Long, Integer> actualizados = new LinkedHashMap<>();
+        for (Libro libro : libroRepository.findAllById(descargasPorLibro.keySet())) {
+            int nuevas = descargasPorLibro.get(libro.getId());
+            long anteriores = libro.getNumeroDescargas() != null ? libro.getNumeroDescargas() : 0;
+            diferencias.put(libro, nuevas - anteriores);
+            actualizados.put(libro.getId(), nuevas);
+            libro.setNumeroDescargas(nuevas);
+            libro.setActualizadoEn(ahora);
+        }
+        // Los UPDATE de los libros van antes que los contadores, en el mismo orden que la ingesta (ver EstadisticasService.aplicar)
+        libroRepository.flush();
+        estadisticasService.registrarDescargas(diferencias);
+        if (!actualizados.isEmpty()) {
+            eventos.publishEvent(new DescargasActualizadasEvent(actualizados));
+        }
+        return actualizados.size();
+    }
+
+    /**
+     * Cuenta los libros recién cuando la transacción termina: si se revierte (incluso al hacer commit)
+     * todo el lote cuenta como fallido y no como guardado, salvo que se vaya a reintentar
+     */
+    private void contarAlTerminar(int recibidos, int[] guardados, boolean contarFallo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int estado) {
+                if (estado == STATUS_COMMITTED) {
+                    librosGuardados.increment(guardados[0]);
+                    librosDuplicados.increment(recibidos - guardados[0]);
+                } else if (contarFallo) {
+                    librosFallidos.increment(recibidos);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reemplaza los autores de cada libro por los ya registrados con el mismo nombre y guarda los que faltan.
+     * Debe llamarse dentro de una transacción y con libros que aún no están persistidos
+     */
+    void resolverAutores(List<Libro> libros) {
+        List<Autor> recibidos = new ArrayList<>();
+        libros.forEach(libro -> recibidos.addAll(libro.getAutores()));
+        Map<String, Autor> registrados = registrarAutores(recibidos);
+
+        for (Libro libro : libros) {
+            List<Autor> resueltos = new ArrayList<>();
+            for (Autor autor : libro.getAutores()) {
+                Autor registrado = registrados.get(autor.getNombre());
+                if (!resueltos.contains(registrado)) {
+                    resueltos.add(registrado);
+                }
+            }
+            libro.setAutores(resueltos);
+        }
+    }
+
+    /**
+     * Busca en una consulta por lote los autores ya registrados con esos nombres y guarda los que faltan.
+     * Los años que la BD no tenía se completan con los recibidos y se suman a las estadísticas por década.
+     * Debe llamarse dentro de una transacción
+     * @param recibidos Autores sin persistir, posiblemente con nombres repetidos
+     * @return Autores registrados indexados por nombre
+     */
+    Map<String, Autor> registrarAutores(Collection<Autor> recibidos) {
+        Map<String, Autor> porNombre = new LinkedHashMap<>();
+        for (Autor autor : recibidos) {
+            porNombre.putIfAbsent(autor.getNombre(), autor);
+        }
+        Map<String, Autor> registrados = new HashMap<>();
+        if (porNombre.isEmpty()) {
+            return registrados;
+        }
+
+        List<String> nombres = new ArrayList<>(porNombre.keySet());
+        for (int i = 0; i < nombres.size(); i += TAMANO_LOTE_CONSULTA) {
+            List<String> lote = nombres.subList(i, Math.min(i + TAMANO_LOTE_CONSULTA, nombres.size()));
+            autorRepository.findByNombreIn(lote).forEach(autor -> registrados.put(autor.getNombre(), autor));
+        }
+
+        List<Autor> nuevos = new ArrayList<>();
+        List<Integer> nacimientos = new ArrayList<>();
+        List<Integer> fallecimientos = new ArrayList<>();
+        porNombre.forEach((nombre, recibido) -> {
+            Autor registrado = registrados.get(nombre);
+            if (registrado == null) {
+                nuevos.add(recibido);
+                registrados.put(nombre, recibido);
+                if (recibido.getAnioNacimiento() != null) {
+                    nacimientos.add(recibido.getAnioNacimiento());
+                }
+                if (recibido.getAnioFallecimiento() != null) {
+                    fallecimientos.add(recibido.getAnioFallecimiento());
+                }
+            } else {
+                if (registrado.getAnioNacimiento() == null && recibido.getAnioNacimiento() != null) {
+                    registrado.setAnioNacimiento(recibido.getAnioNacimiento());
+                    nacimientos.add(recibido.getAnioNacimiento());
+                }
+                if (registrado.getAnioFallecimiento() == null && recibido.getAnioFallecimiento() != null) {
+                    registrado.setAnioFallecimiento(recibido.getAnioFallecimiento());
+                    fallecimientos.add(recibido.getAnioFallecimiento());
+                }
+            }
+        });
+        autorRepository.saveAll(nuevos);
+        estadisticasService.registrarAnios(nacimientos, fallecimientos);
+        return registrados;
+    }
+
+    private <T> Set<T> buscarExistentes(List<T> claves, Function<List<T>, List<T>> consulta) {
+        Set<T> existentes = new HashSet<>();
+        for (int i = 0; i < claves.size(); i += TAMANO_LOTE_CONSULTA) {
+            existentes.addAll(consulta.apply(claves.subList(i, Math.min(i + TAMANO_LOTE_CONSULTA, claves.size()))));
+        }
+        return existentes;
+    }
+}
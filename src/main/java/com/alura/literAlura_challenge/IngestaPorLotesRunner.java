@@ -0,0 +1,51 @@
+package com.alura.literAlura_challenge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import java.nio.file.Path;
+
+/**
+ * Modo ingesta (perfil ingesta): carga el catálogo al arrancar y la aplicación termina, sin menú ni
+ * servidor web. Con --literalura.importacion.archivo=pg_catalog.csv importa el archivo; sin él cosecha
+ * la API desde la última página guardada. Si no termina, la aplicación sale con error
+ */
+@Component
+@Profile(LiterAluraChallengeApplication.PERFIL_INGESTA)
+public class IngestaPorLotesRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(IngestaPorLotesRunner.class);
+
+    static final String PROPIEDAD_ARCHIVO = "literalura.importacion.archivo";
+
+    @Autowired
+    private ImportacionCatalogoService importacionCatalogoService;
+
+    @Autowired
+    private CosechaCatalogoService cosechaCatalogoService;
+
+    @Value("${" + PROPIEDAD_ARCHIVO + ":}")
+    private String archivo;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!archivo.isBlank()) {
+            ImportacionCatalogoService.ResultadoImportacion resultado = importacionCatalogoService.importar(Path.of(archivo));
+            if (!resultado.completa()) {
+                throw new IllegalStateException("Importación detenida después de "
+                    + resultado.registrosLeidos() + " registros: " + resultado.error());
+            }
+            return;
+        }
+        CosechaCatalogoService.ResultadoCosecha resultado = cosechaCatalogoService.cosecharCatalogo();
+        log.info("Cosecha por lotes: {} páginas procesadas, {} libros nuevos",
+            resultado.paginasProcesadas(), resultado.librosGuardados());
+        if (!resultado.completa()) {
+            throw new IllegalStateException("Cosecha detenida: " + resultado.error());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.alura.literAlura_challenge;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.sql.init.AbstractScriptDatabaseInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * Hace correr el script de spring.sql.init (schema-postgresql.sql: secuencia e índices) también en los perfiles
+ * con inicialización diferida (consola e ingesta), donde nadie pide el inicializador y no se crearía.
+ * En consola Hibernate arranca en segundo plano, así que el script espera a que termine de crear las tablas
+ */
+@Configuration(proxyBeanMethods = false)
+class InicializacionEsquema {
+
+    @Bean
+    static LazyInitializationExcludeFilter inicializarEsquemaAlArrancar() {
+        return LazyInitializationExcludeFilter.forBeanTypes(AbstractScriptDatabaseInitializer.class);
+    }
+
+    @Bean
+    static BeanPostProcessor esperarTablasAntesDelScript(ObjectProvider<AbstractEntityManagerFactoryBean> fabricas) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String nombre) {
+                if (bean instanceof AbstractScriptDatabaseInitializer) {
+                    // Bloquea hasta que termina el arranque de Hibernate (ddl-auto incluido)
+                    fabricas.ifAvailable(AbstractEntityManagerFactoryBean::getNativeEntityManagerFactory);
+                }
+                return bean;
+            }
+        };
+    }
+}
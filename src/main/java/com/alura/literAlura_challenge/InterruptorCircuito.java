@@ -0,0 +1,56 @@
+package com.alura.literAlura_challenge;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Interruptor de circuito para un servicio remoto. Tras varios fallos seguidos se abre y
+ * rechaza las llamadas sin intentarlas; pasada la espera deja pasar una llamada de prueba
+ * que vuelve a cerrarlo si tiene éxito.
+ */
+class InterruptorCircuito {
+
+    enum Estado { CERRADO, ABIERTO, SEMIABIERTO }
+
+    private final int umbralFallos;
+    private final long esperaNanos;
+    private final LongSupplier reloj;
+
+    private Estado estado = Estado.CERRADO;
+    private int fallosSeguidos;
+    private long abiertoHasta;
+
+    InterruptorCircuito(int umbralFallos, Duration espera, LongSupplier reloj) {
+        this.umbralFallos = umbralFallos;
+        this.esperaNanos = espera.toNanos();
+        this.reloj = reloj;
+    }
+
+    /**
+     * @return true si la llamada puede intentarse
+     */
+    synchronized boolean permitirLlamada() {
+        if (estado == Estado.ABIERTO && reloj.getAsLong() - abiertoHasta >= 0) {
+            estado = Estado.SEMIABIERTO;
+            return true;
+        }
+        return estado == Estado.CERRADO;
+    }
+
+    synchronized void registrarExito() {
+        estado = Estado.CERRADO;
+        fallosSeguidos = 0;
+    }
+
+    synchronized void registrarFallo() {
+        fallosSeguidos++;
+        if (estado == Estado.SEMIABIERTO || fallosSeguidos >= umbralFallos) {
+            estado = Estado.ABIERTO;
+            abiertoHasta = reloj.getAsLong() + esperaNanos;
+        }
+    }
+
+    synchronized Estado getEstado() {
+        return estado;
+    }
+}
@@ -0,0 +1,226 @@
+package com.alura.literAlura_challenge;
+
+import com.alura.literAlura_challenge.LibroGutendex.AutorGutendex;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lee el catálogo CSV de Project Gutenberg (pg_catalog.csv, columnas Text#, Type, Issued, Title, Language,
+ * Authors...). Solo se importan los registros de tipo Text: el catálogo también lista audiolibros, partituras,
+ * imágenes y otros materiales que no son libros. Separar los registros es secuencial porque un campo entre comillas puede tener saltos de línea;
+ * convertir cada registro en un {@link LibroGutendex} no depende de los demás y se puede hacer en paralelo
+ * con {@link #convertir(List)}.
+ * Se normaliza igual que una respuesta de la API: autores con nombre (sin los colaboradores que figuran con un
+ * rol entre corchetes, como traductores o ilustradores), el primer idioma y las descargas en 0, ya que el
+ * catálogo no las informa
+ */
+class LectorCatalogoCsv {
+
+    // "1797-1851", "1500?-", "-1851", "750? BCE-650? BCE"; los años antes de Cristo quedan negativos, como en la API
+    private static final Pattern ANIOS = Pattern.compile("(?:(\\d+)\\??( BCE)?)?-(?:(\\d+)\\??( BCE)?)?");
+
+    // Valor de la columna Type de los libros
+    private static final String TIPO_TEXTO = "Text";
+
+    private final Reader entrada;
+    private final Columnas columnas;
+    private final StringBuilder registro = new StringBuilder();
+    private boolean terminado;
+
+    /**
+     * @param entrada Contenido del CSV; la primera línea debe ser el encabezado
+     * @throws IllegalArgumentException si al encabezado le falta alguna de las columnas que se usan
+     */
+    LectorCatalogoCsv(Reader entrada) throws IOException {
+        this.entrada = entrada;
+        String encabezado = siguienteRegistro();
+        if (encabezado == null) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        // El archivo puede empezar con la marca de orden de bytes de UTF-8
+        this.columnas = Columnas.desde(dividirCampos(encabezado.replace("\uFEFF", ""), new ArrayList<>()));
+    }
+
+    /**
+     * Lee los siguientes registros sin interpretarlos
+     * @return Hasta {@code cantidad} registros; vacía al llegar al final del archivo
+     */
+    List<String> siguienteBloque(int cantidad) throws IOException {
+        List<String> bloque = new ArrayList<>(cantidad);
+        String linea;
+        while (bloque.size() < cantidad && (linea = siguienteRegistro()) != null) {
+            if (!linea.isEmpty()) {
+                bloque.add(linea);
+            }
+        }
+        return bloque;
+    }
+
+    /**
+     * Convierte registros leídos con {@link #siguienteBloque(int)}. Se puede llamar desde varios hilos a la vez
+     * @return Un libro por registro válido; se descartan los que no son de tipo Text o no tienen id numérico o título
+     */
+    List<LibroGutendex> convertir(List<String> registros) {
+        List<LibroGutendex> libros = new ArrayList<>(registros.size());
+        List<String> valores = new ArrayList<>(columnas.cantidad());
+        for (String linea : registros) {
+            dividirCampos(linea, valores);
+            LibroGutendex libro = convertirRegistro(valores);
+            if (libro != null) {
+                libros.add(libro);
+            }
+        }
+        return libros;
+    }
+
+    private LibroGutendex convertirRegistro(List<String> valores) {
+        if (valores.size() < columnas.cantidad() || !TIPO_TEXTO.equals(valores.get(columnas.tipo()).trim())) {
+            return null;
+        }
+        Integer id = entero(valores.get(columnas.id()));
+        String titulo = valores.get(columnas.titulo()).trim();
+        if (id == null || titulo.isEmpty()) {
+            return null;
+        }
+        String idiomas = valores.get(columnas.idioma());
+        int separador = idiomas.indexOf(';');
+        String idioma = (separador >= 0 ? idiomas.substring(0, separador) : idiomas).trim();
+        return new LibroGutendex(id, titulo, convertirAutores(valores.get(columnas.autores())), 0,
+            idioma.isEmpty() ? LibroGutendex.IDIOMA_POR_DEFECTO : idioma);
+    }
+
+    /**
+     * "Apellido, Nombre, 1797-1851; Otro, 1835-1902 [Translator]" en autores con sus años
+     */
+    static List<AutorGutendex> convertirAutores(String texto) {
+        if (texto.isBlank()) {
+            return List.of();
+        }
+        List<AutorGutendex> autores = new ArrayList<>(2);
+        for (String parte : texto.split(";")) {
+            String autor = parte.trim();
+            if (autor.isEmpty() || autor.endsWith("]")) {
+                continue;
+            }
+            Integer nacimiento = null;
+            Integer fallecimiento = null;
+            int coma = autor.lastIndexOf(',');
+            String ultimo = coma >= 0 ? autor.substring(coma + 1).trim() : autor;
+            Matcher anios = ANIOS.matcher(ultimo);
+            if (coma >= 0 && anios.matches()) {
+                nacimiento = anio(anios.group(1), anios.group(2));
+                fallecimiento = anio(anios.group(3), anios.group(4));
+                autor = autor.substring(0, coma).trim();
+            } else if (coma >= 0 && ultimo.chars().anyMatch(Character::isDigit)) {
+                // Fechas aproximadas ("active 1300", "13th century"): se descartan, como hace la API
+                autor = autor.substring(0, coma).trim();
+            }
+            if (!autor.isBlank()) {
+                autores.add(new AutorGutendex(autor, nacimiento, fallecimiento));
+            }
+        }
+        return autores;
+    }
+
+    private static Integer anio(String numero, String antesDeCristo) {
+        if (numero == null) {
+            return null;
+        }
+        int anio = Integer.parseInt(numero);
+        return antesDeCristo != null ? -anio : anio;
+    }
+
+    private static Integer entero(String texto) {
+        try {
+            return Integer.valueOf(texto.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lee un registro completo respetando los saltos de línea dentro de comillas
+     * @return El registro sin el salto de línea final, o null al llegar al final del archivo
+     */
+    private String siguienteRegistro() throws IOException {
+        if (terminado) {
+            return null;
+        }
+        registro.setLength(0);
+        boolean entreComillas = false;
+        int caracter;
+        while ((caracter = entrada.read()) != -1) {
+            if (caracter == '"') {
+                entreComillas = !entreComillas;
+            } else if (caracter == '\n' && !entreComillas) {
+                return sinRetornoDeCarro();
+            }
+            registro.append((char) caracter);
+        }
+        terminado = true;
+        return registro.isEmpty() ? null : sinRetornoDeCarro();
+    }
+
+    private String sinRetornoDeCarro() {
+        int largo = registro.length();
+        return largo > 0 && registro.charAt(largo - 1) == '\r' ? registro.substring(0, largo - 1) : registro.toString();
+    }
+
+    /**
+     * Separa un registro en campos según RFC 4180: comillas dobles alrededor del campo y "" para una comilla
+     */
+    static List<String> dividirCampos(String linea, List<String> campos) {
+        campos.clear();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Posición de las columnas que se usan, según el encabezado
+     */
+    record Columnas(int id, int tipo, int titulo, int idioma, int autores) {
+
+        static Columnas desde(List<String> encabezado) {
+            return new Columnas(indice(encabezado, "Text#"), indice(encabezado, "Type"), indice(encabezado, "Title"),
+                indice(encabezado, "Language"), indice(encabezado, "Authors"));
+        }
+
+        private static int indice(List<String> encabezado, String nombre) {
+            int indice = encabezado.indexOf(nombre);
+            if (indice < 0) {
+                throw new IllegalArgumentException("Falta la columna " + nombre + " en el encabezado del catálogo");
+            }
+            return indice;
+        }
+
+        int cantidad() {
+            return Math.max(Math.max(Math.max(id, tipo), titulo), Math.max(idioma, autores)) + 1;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.alura.literAlura_challenge;
+
+import com.alura.literAlura_challenge.LibroGutendex.AutorGutendex;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lee una respuesta de la API de Gutenberg token a token con el parser de streaming de Jackson.
+ * No arma el árbol completo de la respuesta: de cada libro solo toma los campos que usa la aplicación,
+ * salta sin materializar el resto (formats, subjects, summaries...) y crea directamente un {@link LibroGutendex}
+ */
+class LectorGutendex {
+
+    private final JsonFactory fabrica;
+
+    LectorGutendex(JsonFactory fabrica) {
+        this.fabrica = fabrica;
+    }
+
+    PaginaGutendex leer(byte[] json) throws IOException {
+        try (JsonParser parser = fabrica.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Se esperaba un objeto JSON");
+            }
+            Integer total = null;
+            String siguiente = null;
+            List<LibroGutendex> libros = List.of();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken valor = parser.nextToken();
+                switch (campo) {
+                    case "count" -> total = leerEntero(parser, valor);
+                    case "next" -> siguiente = leerTexto(parser, valor);
+                    case "results" -> libros = leerLibros(parser, valor);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new PaginaGutendex(total, siguiente, libros);
+        }
+    }
+
+    private List<LibroGutendex> leerLibros(JsonParser parser, JsonToken valor) throws IOException {
+        if (valor != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        List<LibroGutendex> libros = new ArrayList<>(LibroService.TAMANO_PAGINA_BUSQUEDA);
+        JsonToken elemento;
+        while ((elemento = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (elemento == JsonToken.START_OBJECT) {
+                libros.add(leerLibro(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return libros;
+    }
+
+    private LibroGutendex leerLibro(JsonParser parser) throws IOException {
+        Integer id = null;
+        String titulo = null;
+        List<AutorGutendex> autores = List.of();
+        int descargas = 0;
+        String idioma = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            switch (campo) {
+                case "id" -> id = leerEntero(parser, valor);
+                case "title" -> titulo = leerTexto(parser, valor);
+                case "authors" -> autores = leerAutores(parser, valor);
+                case "download_count" -> {
+                    Integer leidas = leerEntero(parser, valor);
+                    descargas = leidas != null ? leidas : 0;
+                }
+                case "languages" -> idioma = leerPrimerTexto(parser, valor);
+                default -> parser.skipChildren();
+            }
+        }
+        return new LibroGutendex(id, titulo, autores, descargas, idioma != null ? idioma : LibroGutendex.IDIOMA_POR_DEFECTO);
+    }
+
+    /**
+     * Autores en el orden de la API, descartando los que no tienen nombre
+     */
+    private List<AutorGutendex> leerAutores(JsonParser parser, JsonToken valor) throws IOException {
+        if (valor != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        List<AutorGutendex> autores = null;
+        JsonToken elemento;
+        while ((elemento = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (elemento != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String nombre = null;
+            Integer nacimiento = null;
+            Integer fallecimiento = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.currentName();
+                JsonToken dato = parser.nextToken();
+                switch (campo) {
+                    case "name" -> nombre = leerTexto(parser, dato);
+                    case "birth_year" -> nacimiento = leerEntero(parser, dato);
+                    case "death_year" -> fallecimiento = leerEntero(parser, dato);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (nombre != null && !nombre.isBlank()) {
+                if (autores == null) {
+                    autores = new ArrayList<>(2);
+                }
+                autores.add(new AutorGutendex(nombre, nacimiento, fallecimiento));
+            }
+        }
+        return autores != null ? autores : List.of();
+    }
+
+    private String leerPrimerTexto(JsonParser parser, JsonToken valor) throws IOException {
+        if (valor != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String primero = null;
+        JsonToken elemento;
+        while ((elemento = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (primero == null && elemento == JsonToken.VALUE_STRING) {
+                primero = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return primero;
+    }
+
+    private static Integer leerEntero(JsonParser parser, JsonToken valor) throws IOException {
+        if (valor == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static String leerTexto(JsonParser parser, JsonToken valor) throws IOException {
+        if (valor == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
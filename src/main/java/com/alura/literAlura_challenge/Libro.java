@@ -1,37 +1,101 @@
 package com.alura.literAlura_challenge;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// En la caché de segundo nivel (ver CacheSegundoNivel); los libros que falten en ella al resolver el resultado
+// de una consulta guardada se leen de a 100 por SELECT
 @Entity
-@Table(name = "libros")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivel.REGION_LIBROS)
+@BatchSize(size = 100)
+@Table(name = "libros", indexes = {
+    @Index(name = "idx_libros_idioma", columnList = "idioma"),
+    @Index(name = "idx_libros_descargas", columnList = "descargas"),
+    @Index(name = "uk_libros_gutenberg_id", columnList = "gutenberg_id", unique = true),
+    @Index(name = "idx_libros_actualizado", columnList = "actualizado_en, id")
+})
 public class Libro {
+    static final int LARGO_TITULO = 2000;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con asignación por bloques para que Hibernate pueda agrupar los INSERT en batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "libros_seq")
+    @SequenceGenerator(name = "libros_seq", sequenceName = "libros_seq", allocationSize = 50)
     private Long id;
+    // Id del libro en Project Gutenberg: identifica el libro al guardarlo (índice único) y al volver a consultarlo en la API
+    @Column(name = "gutenberg_id")
+    private Integer gutenbergId;
+    // Hay títulos del catálogo de Gutenberg de más de 255 caracteres
+    @Column(length = LARGO_TITULO)
     private String titulo;
-    private String autor;
-    private String fechaFallecimiento;
-    private String fechaNacimiento;
-    private String numeroDescargas;
+    // Todos los autores que informa la API, en el mismo orden (el primero es el principal)
+    @ManyToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivel.REGION_AUTORES_DE_LIBRO)
+    @JoinTable(name = "libros_autores",
+        joinColumns = @JoinColumn(name = "libro_id"),
+        inverseJoinColumns = @JoinColumn(name = "autor_id"),
+        indexes = @Index(name = "idx_libros_autores_autor", columnList = "autor_id"))
+    @OrderColumn(name = "posicion")
+    private List<Autor> autores = new ArrayList<>();
+    @Column(name = "descargas")
+    private Integer numeroDescargas;
     private String idioma;
+    // Momento en que los datos del libro se obtuvieron de la API por última vez (el refresco
+    // de descargas solo lo actualiza si el libro cambió)
+    private LocalDateTime actualizadoEn;
+
+    @PrePersist
+    void alCrear() {
+        if (actualizadoEn == null) {
+            actualizadoEn = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * @return El primer autor del libro, o null si la API no informó ninguno
+     */
+    public Autor getAutorPrincipal() {
+        return autores.isEmpty() ? null : autores.get(0);
+    }
 
     public Long getId() {
         return id;
     }
 
+    public Integer getGutenbergId() {
+        return gutenbergId;
+    }
+
     public String getTitulo() {
         return titulo;
     }
 
-    public String getAutor() {
-        return autor;
+    public List<Autor> getAutores() {
+        return autores;
     }
 
-    public String getNumeroDescargas() {
+    public Integer getNumeroDescargas() {
         return numeroDescargas;
     }
 
@@ -39,27 +103,27 @@ public class Libro {
         return idioma;
     }
 
-    public String getFechaFallecimiento() {
-        return fechaFallecimiento;
-    }
-
-    public String getFechaNacimiento() {
-        return fechaNacimiento;
+    public LocalDateTime getActualizadoEn() {
+        return actualizadoEn;
     }
 
     public void setId(Long id) {
         this.id = id;
     }
 
+    public void setGutenbergId(Integer gutenbergId) {
+        this.gutenbergId = gutenbergId;
+    }
+
     public void setTitulo(String titulo) {
         this.titulo = titulo;
     }
 
-    public void setAutor(String autor) {
-        this.autor = autor;
+    public void setAutores(List<Autor> autores) {
+        this.autores = autores;
     }
 
-    public void setNumeroDescargas(String numeroDescargas) {
+    public void setNumeroDescargas(Integer numeroDescargas) {
         this.numeroDescargas = numeroDescargas;
     }
 
@@ -67,12 +131,8 @@ public class Libro {
         this.idioma = idioma;
     }
 
-    public void setFechaFallecimiento(String fechaFallecimiento) {
-        this.fechaFallecimiento = fechaFallecimiento;
-    }
-
-    public void setFechaNacimiento(String fechaNacimiento) {
-        this.fechaNacimiento = fechaNacimiento;
+    public void setActualizadoEn(LocalDateTime actualizadoEn) {
+        this.actualizadoEn = actualizadoEn;
     }
 
 }
@@ -1,23 +1,215 @@
 package com.alura.literAlura_challenge;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/books")
 public class LibroController {
+    static final String CABECERA_SIGUIENTE_CURSOR = "X-Siguiente-Cursor";
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int LIBROS_POR_ENVIO = 500;
+
     @Autowired
     private LibroService libroService;
 
+    @Autowired
+    private CacheRespuestasGutendex cacheRespuestas;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // No existe con literalura.sugerencias.habilitado=false
+    @Autowired(required = false)
+    private IndiceSugerencias indiceSugerencias;
+
+    @Autowired
+    private VersionCatalogo versionCatalogo;
+
+    /**
+     * Con {@code search} busca libros; con {@code cursor} (vacío para empezar) devuelve una página
+     * del catálogo local y el cursor de la siguiente en la cabecera X-Siguiente-Cursor;
+     * sin ninguno de los dos devuelve la primera página del catálogo local, o la de la API si todavía está vacío.
+     * Las páginas del catálogo local llevan ETag y responden 304 si el catálogo no cambió; las búsquedas
+     * y la página de la API no, porque dependen de la API
+     */
     @GetMapping
-    public List<LibroDTO> obtenerLibros(@RequestParam(required = false) String search) {
+    public CompletableFuture<ResponseEntity<?>> obtenerLibros(@RequestParam(required = false) String search,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "32") int size,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         if (search != null && !search.trim().isEmpty()) {
-            return libroService.buscarLibros(search);
+            return libroService.buscarLibrosAsync(search, Math.max(page, 0), limitarTamano(size))
+                .thenApply(ResponseEntity::ok);
+        }
+        boolean gzip = aceptaGzip(acceptEncoding);
+        String etag = versionCatalogo.etag(gzip);
+        if (VersionCatalogo.coincide(ifNoneMatch, etag)) {
+            return CompletableFuture.completedFuture(noModificado(etag));
+        }
+        PaginaLibros pagina = libroService.obtenerPaginaCatalogo(cursor, limitarTamano(size));
+        if (cursor == null && pagina.libros().isEmpty()) {
+            return libroService.obtenerLibrosAsync().thenApply(ResponseEntity::ok);
+        }
+        ResponseEntity.BodyBuilder respuesta = conVersion(ResponseEntity.ok(), etag, gzip);
+        if (pagina.siguienteCursor() != null) {
+            respuesta.header(CABECERA_SIGUIENTE_CURSOR, pagina.siguienteCursor());
         }
-        return libroService.obtenerLibros();
+        return CompletableFuture.completedFuture(
+            respuesta.contentType(MediaType.APPLICATION_JSON).body(cuerpo(pagina.libros(), gzip)));
+    }
+
+    /**
+     * Catálogo local paginado por clave; siguienteCursor es null en la última página
+     */
+    @GetMapping("/catalogo")
+    public ResponseEntity<?> obtenerCatalogo(@RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "100") int size,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = aceptaGzip(acceptEncoding);
+        String etag = versionCatalogo.etag(gzip);
+        if (VersionCatalogo.coincide(ifNoneMatch, etag)) {
+            return noModificado(etag);
+        }
+        PaginaLibros pagina = libroService.obtenerPaginaCatalogo(cursor, Math.min(Math.max(size, 1), 1000));
+        return conVersion(ResponseEntity.ok(), etag, gzip).contentType(MediaType.APPLICATION_JSON).body(cuerpo(pagina, gzip));
+    }
+
+    /**
+     * Exporta todo el catálogo local como NDJSON (un libro por línea), escribiendo
+     * a medida que se leen las filas de la BD
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarCatalogo(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = aceptaGzip(acceptEncoding);
+        String etag = versionCatalogo.etag(gzip);
+        if (VersionCatalogo.coincide(ifNoneMatch, etag)) {
+            return noModificado(etag);
+        }
+        StreamingResponseBody cuerpo = salida -> {
+            // Con vaciado sincrónico, cada flush entrega al cliente lo comprimido hasta ahí
+            OutputStream destino = gzip ? new GZIPOutputStream(salida, true) : salida;
+            OutputStream buffer = new BufferedOutputStream(destino);
+            int[] escritos = {0};
+            libroService.recorrerCatalogoCompleto(libro -> {
+                try {
+                    buffer.write(objectMapper.writeValueAsBytes(libro));
+                    buffer.write('\n');
+                    // El primer libro sale enseguida; el resto, en bloques
+                    if (++escritos[0] % LIBROS_POR_ENVIO == 1) {
+                        buffer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffer.flush();
+            if (destino instanceof GZIPOutputStream comprimido) {
+                comprimido.finish();
+            }
+        };
+        return conVersion(ResponseEntity.ok(), etag, gzip).contentType(NDJSON).body(cuerpo);
+    }
+
+    /**
+     * Autocompletado de títulos y autores del catálogo local; tolera errores de tipeo
+     * y toma la última palabra como incompleta. Sin el índice (desactivado) no hay sugerencias
+     */
+    @GetMapping("/suggest")
+    public List<IndiceSugerencias.Sugerencia> sugerir(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "10") int limit) {
+        if (indiceSugerencias == null) {
+            return List.of();
+        }
+        return indiceSugerencias.sugerir(q, Math.min(Math.max(limit, 1), 50));
+    }
+
+    @GetMapping("/cache")
+    public CacheRespuestasGutendex.Estadisticas estadisticasCache() {
+        return cacheRespuestas.estadisticas();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> manejarParametroInvalido(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    // Una búsqueda que necesitaba la API y no tenía resultados locales que devolver en su lugar
+    @ExceptionHandler(GutendexException.class)
+    public ResponseEntity<String> manejarFalloDeLaAPI(GutendexException e) {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(e.getMessage());
+    }
+
+    // El cliente puede guardar la respuesta pero debe revalidarla con el ETag antes de usarla
+    private static ResponseEntity.BodyBuilder conVersion(ResponseEntity.BodyBuilder respuesta, String etag, boolean gzip) {
+        respuesta.eTag(etag).cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta;
+    }
+
+    private static <T> ResponseEntity<T> noModificado(String etag) {
+        return conVersion(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, false).build();
+    }
+
+    /**
+     * Tomcat no comprime las respuestas con ETag fuerte, así que las del catálogo versionado se comprimen acá
+     * @return El JSON ya comprimido si gzip es true; si no, el mismo valor para que lo escriba Spring
+     */
+    private Object cuerpo(Object valor, boolean gzip) {
+        if (!gzip) {
+            return valor;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream comprimido = new GZIPOutputStream(bytes)) {
+            comprimido.write(objectMapper.writeValueAsBytes(valor));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // true si el cliente acepta gzip (q=0 lo rechaza)
+    static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacion : acceptEncoding.split(",")) {
+            String[] partes = codificacion.split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static int limitarTamano(int size) {
+        return Math.min(Math.max(size, 1), 100);
     }
 }
@@ -1,14 +1,23 @@
 package com.alura.literAlura_challenge;
 
+import java.util.List;
+
 public record LibroDTO(
     String titulo,
     String autor,
-    String fechaFallecimiento,
-    String fechaNacimiento,
-    String numeroDescargas,
-    String idioma
+    Integer fechaFallecimiento,
+    Integer fechaNacimiento,
+    Integer numeroDescargas,
+    String idioma,
+    List<String> autores
     ) {
     public LibroDTO(Libro libro) {
-        this(libro.getTitulo(), libro.getAutor(), libro.getFechaFallecimiento(), libro.getFechaNacimiento(), libro.getNumeroDescargas(), libro.getIdioma());
+        this(libro.getTitulo(),
+            libro.getAutorPrincipal() != null ? libro.getAutorPrincipal().getNombre() : LibroService.AUTOR_DESCONOCIDO,
+            libro.getAutorPrincipal() != null ? libro.getAutorPrincipal().getAnioFallecimiento() : null,
+            libro.getAutorPrincipal() != null ? libro.getAutorPrincipal().getAnioNacimiento() : null,
+            libro.getNumeroDescargas(),
+            libro.getIdioma(),
+            libro.getAutores().stream().map(Autor::getNombre).toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.alura.literAlura_challenge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Libro tal como lo entrega la API de Gutenberg (o el catálogo CSV de Project Gutenberg), ya normalizado
+ * por {@link LectorGutendex} o {@link LectorCatalogoCsv}: solo autores con nombre, las descargas en 0 si no
+ * vienen y el primer idioma ("en" si no hay ninguno).
+ * Es lo único que se construye por libro al leer una respuesta; de aquí salen tanto el DTO que se
+ * devuelve como la entidad que se guarda
+ */
+public record LibroGutendex(
+    Integer gutenbergId,
+    String titulo,
+    List<AutorGutendex> autores,
+    int numeroDescargas,
+    String idioma
+    ) {
+
+    // Idioma que se asume cuando la fuente no informa ninguno
+    static final String IDIOMA_POR_DEFECTO = "en";
+
+    public LibroDTO aLibroDTO() {
+        AutorGutendex principal = autores.isEmpty() ? null : autores.get(0);
+        List<String> nombres = new ArrayList<>(autores.size());
+        for (AutorGutendex autor : autores) {
+            nombres.add(autor.nombre());
+        }
+        return new LibroDTO(
+            titulo != null ? titulo : "Título desconocido",
+            principal != null ? principal.nombre() : LibroService.AUTOR_DESCONOCIDO,
+            principal != null ? principal.anioFallecimiento() : null,
+            principal != null ? principal.anioNacimiento() : null,
+            numeroDescargas,
+            idioma,
+            nombres
+        );
+    }
+
+    /**
+     * Entidad lista para persistir. Los autores quedan sin id: {@link IngestaLibrosService} los reemplaza
+     * por los ya registrados
+     */
+    public Libro aEntidad() {
+        Libro libro = new Libro();
+        libro.setGutenbergId(gutenbergId);
+        libro.setTitulo(titulo);
+        List<Autor> entidades = new ArrayList<>(autores.size());
+        for (AutorGutendex autor : autores) {
+            entidades.add(new Autor(autor.nombre(), autor.anioNacimiento(), autor.anioFallecimiento()));
+        }
+        libro.setAutores(entidades);
+        libro.setNumeroDescargas(numeroDescargas);
+        libro.setIdioma(idioma);
+        return libro;
+    }
+
+    public record AutorGutendex(String nombre, Integer anioNacimiento, Integer anioFallecimiento) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.alura.literAlura_challenge;
+
+import java.time.LocalDateTime;
+
+/**
+ * Datos de un libro guardado que el refresco de descargas compara con la API
+ */
+public record LibroParaRefrescar(
+    Long id,
+    Integer gutenbergId,
+    Integer numeroDescargas,
+    LocalDateTime actualizadoEn
+    ) {
+}
@@ -1,20 +1,96 @@
 package com.alura.literAlura_challenge;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface LibroRepository extends JpaRepository<Libro, Long> {
-    
-    @Query("SELECT l FROM Libro l WHERE LOWER(l.titulo) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(l.autor) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+public interface LibroRepository extends JpaRepository<Libro, Long>, LibroRepositoryCustom {
+
+    // Las consultas con HINT_CACHEABLE guardan su resultado en la caché de segundo nivel (CacheSegundoNivel)
+    // hasta que se modifique alguna de las tablas que leen
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Libro> findAll();
+
+    @Query("SELECT l FROM Libro l WHERE LOWER(l.titulo) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR EXISTS (SELECT a FROM l.autores a WHERE LOWER(a.nombre) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
     List<Libro> buscarPorTituloOAutor(@Param("searchTerm") String searchTerm);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Libro> findByTituloContainingIgnoreCase(String titulo);
-    List<Libro> findByAutorContainingIgnoreCase(String autor);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Libro> findByAutoresNombreContainingIgnoreCase(String autor);
     
-    // Verificar si existe un libro por título
-    boolean existsByTitulo(String titulo);
+    // Resolver en una sola consulta cuáles ids de Gutenberg de un lote ya están registrados (usa el índice único)
+    @Query("SELECT l.gutenbergId FROM Libro l WHERE l.gutenbergId IN :ids")
+    List<Integer> findGutenbergIdsExistentes(@Param("ids") Collection<Integer> ids);
+
+    // Los libros ya registrados de un lote, para renovar su fecha de actualización como entidades (un UPDATE
+    // masivo descartaría de la caché de segundo nivel todos los libros y no solo estos)
+    List<Libro> findByGutenbergIdIn(Collection<Integer> ids);
+
+    // Libros guardados antes de registrar el id de Gutenberg, para asignárselo en vez de duplicarlos
+    boolean existsByGutenbergIdIsNull();
+    List<Libro> findByGutenbergIdIsNullAndTituloIn(Collection<String> titulos);
+
+    // Resolver en una sola consulta cuáles títulos de un lote ya están registrados
+    @Query("SELECT l.titulo FROM Libro l WHERE l.titulo IN :titulos")
+    List<String> findTitulosExistentes(@Param("titulos") Collection<String> titulos);
+
+    // Libros de un idioma con su autor principal, paginados por id
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.alura.literAlura_challenge.LibroResumenDTO(l.id, l.titulo, a.nombre, l.idioma, l.numeroDescargas)"
+        + " FROM Libro l LEFT JOIN l.autores a ON INDEX(a) = 0"
+        + " WHERE l.idioma = :idioma AND l.id > :despuesDeId ORDER BY l.id")
+    List<LibroResumenDTO> listarPorIdioma(@Param("idioma") String idioma, @Param("despuesDeId") long despuesDeId, Limit limite);
+
+    // Títulos de los libros de un grupo de autores, para completar un listado de autores en una sola consulta
+    @Query("SELECT new com.alura.literAlura_challenge.TituloDeAutor(a.id, l.titulo)"
+        + " FROM Libro l JOIN l.autores a WHERE a.id IN :autorIds ORDER BY l.titulo")
+    List<TituloDeAutor> listarTitulosDeAutores(@Param("autorIds") Collection<Long> autorIds);
+
+    // Catálogo paginado por clave: la página siguiente empieza después del último id recibido
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Libro> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    // Todo el catálogo con sus autores, leído del cursor de la BD en bloques; requiere una transacción abierta
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.alura.literAlura_challenge.FilaExportacion(l.id, l.titulo, l.numeroDescargas, l.idioma,"
+        + " a.nombre, a.anioNacimiento, a.anioFallecimiento, a.id)"
+        + " FROM Libro l LEFT JOIN l.autores a ORDER BY l.id, INDEX(a)")
+    Stream<FilaExportacion> leerCatalogoParaExportar();
+
+    // Libros más descargados con su autor principal; recorre el índice de descargas sin ordenar la tabla
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.alura.literAlura_challenge.LibroResumenDTO(l.id, l.titulo, a.nombre, l.idioma, l.numeroDescargas)"
+        + " FROM Libro l LEFT JOIN l.autores a ON INDEX(a) = 0"
+        + " WHERE l.numeroDescargas IS NOT NULL ORDER BY l.numeroDescargas DESC, l.id")
+    List<LibroResumenDTO> listarMasDescargados(Limit limite);
+
+    // Libros que se pueden volver a consultar en la API, de los datos más viejos a los más nuevos y
+    // paginados por clave (actualizadoEn, id); excluye los obtenidos después de empezar la vuelta
+    @Query("SELECT new com.alura.literAlura_challenge.LibroParaRefrescar(l.id, l.gutenbergId, l.numeroDescargas, l.actualizadoEn)"
+        + " FROM Libro l WHERE l.gutenbergId IS NOT NULL AND l.actualizadoEn < :inicioVuelta"
+        + " AND (l.actualizadoEn > :despuesDe OR (l.actualizadoEn = :despuesDe AND l.id > :despuesDeId))"
+        + " ORDER BY l.actualizadoEn, l.id")
+    List<LibroParaRefrescar> listarParaRefrescar(@Param("inicioVuelta") LocalDateTime inicioVuelta,
+                                                 @Param("despuesDe") LocalDateTime despuesDe,
+                                                 @Param("despuesDeId") long despuesDeId, Limit limite);
+
+    // Agregados completos para reconstruir las estadísticas: [idioma, libros, descargas]
+    @Query("SELECT l.idioma, COUNT(l), COALESCE(SUM(l.numeroDescargas), 0) FROM Libro l GROUP BY l.idioma")
+    List<Object[]> agregarPorIdioma();
+
+    // [id del autor, descargas de sus libros]
+    @Query("SELECT a.id, COALESCE(SUM(l.numeroDescargas), 0) FROM Libro l JOIN l.autores a GROUP BY a.id")
+    List<Object[]> agregarDescargasPorAutor();
 }
@@ -0,0 +1,29 @@
+package com.alura.literAlura_challenge;
+
+import java.util.List;
+
+/**
+ * Consultas de libros que se arman dinámicamente y no caben en un método derivado o un @Query fijo
+ */
+public interface LibroRepositoryCustom {
+
+    /**
+     * Busca en el catálogo local los libros cuyo título o autor contienen todas las palabras del término,
+     * ordenados por relevancia: título exacto, título que empieza por el término, título que lo contiene y,
+     * por último, coincidencias solo en el autor
+     * @param termino Término(s) de búsqueda separados por espacios, con los filtros de {@link ConsultaLibros}
+     * @param pagina Número de página (empieza en 0)
+     * @param tamano Cantidad de libros por página
+     */
+    List<Libro> buscarClasificados(String termino, int pagina, int tamano);
+
+    /**
+     * Busca con los filtros de la consulta en una sola sentencia; cada filtro usa su índice (trigramas del título y
+     * del autor, idioma, descargas y años del autor). Con palabras ordena por relevancia como
+     * {@link #buscarClasificados(String, int, int)}; sin ellas, de los libros más descargados a los menos
+     * @param consulta Palabras y filtros de la búsqueda
+     * @param pagina Número de página (empieza en 0)
+     * @param tamano Cantidad de libros por página
+     */
+    List<Libro> buscarClasificados(ConsultaLibros consulta, int pagina, int tamano);
+}
@@ -0,0 +1,82 @@
+package com.alura.literAlura_challenge;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LibroRepositoryCustomImpl implements LibroRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Libro> buscarClasificados(String termino, int pagina, int tamano) {
+        return buscarClasificados(ConsultaLibros.interpretar(termino), pagina, tamano);
+    }
+
+    @Override
+    public List<Libro> buscarClasificados(ConsultaLibros consulta, int pagina, int tamano) {
+        if (consulta.estaVacia()) {
+            return new ArrayList<>();
+        }
+
+        List<String> palabras = consulta.palabras();
+        List<String> condiciones = new ArrayList<>();
+        Map<String, Object> parametros = new HashMap<>();
+        // Cada palabra debe aparecer en el título o en el autor; con el índice de trigramas
+        // de schema-postgresql.sql estos LIKE '%...%' no recorren toda la tabla
+        for (int i = 0; i < palabras.size(); i++) {
+            condiciones.add("(LOWER(l.titulo) LIKE :p" + i + " ESCAPE '\\'"
+                + " OR EXISTS (SELECT a FROM l.autores a WHERE LOWER(a.nombre) LIKE :p" + i + " ESCAPE '\\'))");
+            parametros.put("p" + i, "%" + escaparLike(palabras.get(i)) + "%");
+        }
+        if (consulta.autor() != null) {
+            condiciones.add("EXISTS (SELECT a FROM l.autores a WHERE LOWER(a.nombre) LIKE :autor ESCAPE '\\')");
+            parametros.put("autor", "%" + escaparLike(consulta.autor()) + "%");
+        }
+        if (consulta.idioma() != null) {
+            condiciones.add("l.idioma = :idioma");
+            parametros.put("idioma", consulta.idioma());
+        }
+        if (consulta.descargasMayoresA() != null) {
+            condiciones.add("l.numeroDescargas > :descargas");
+            parametros.put("descargas", consulta.descargasMayoresA());
+        }
+        if (consulta.vivoEn() != null) {
+            // Mismo criterio que el listado de autores vivos: años de nacimiento y fallecimiento conocidos
+            condiciones.add("EXISTS (SELECT a FROM l.autores a WHERE a.anioNacimiento <= :anio AND a.anioFallecimiento >= :anio)");
+            parametros.put("anio", consulta.vivoEn());
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT l FROM Libro l WHERE ").append(String.join(" AND ", condiciones));
+        if (palabras.isEmpty()) {
+            jpql.append(" ORDER BY l.numeroDescargas DESC NULLS LAST, l.id");
+        } else {
+            String frase = String.join(" ", palabras);
+            jpql.append(" ORDER BY CASE")
+                .append(" WHEN LOWER(l.titulo) = :frase THEN 0")
+                .append(" WHEN LOWER(l.titulo) LIKE :prefijo ESCAPE '\\' THEN 1")
+                .append(" WHEN LOWER(l.titulo) LIKE :contiene ESCAPE '\\' THEN 2")
+                .append(" ELSE 3 END, l.id");
+            parametros.put("frase", frase);
+            parametros.put("prefijo", escaparLike(frase) + "%");
+            parametros.put("contiene", "%" + escaparLike(frase) + "%");
+        }
+
+        TypedQuery<Libro> query = entityManager.createQuery(jpql.toString(), Libro.class);
+        parametros.forEach(query::setParameter);
+        query.setFirstResult(pagina * tamano);
+        query.setMaxResults(tamano);
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        return query.getResultList();
+    }
+
+    private String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
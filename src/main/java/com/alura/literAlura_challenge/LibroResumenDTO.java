@@ -0,0 +1,13 @@
+package com.alura.literAlura_challenge;
+
+/**
+ * Datos de un libro para listados: solo las columnas que se muestran, con el autor principal
+ */
+public record LibroResumenDTO(
+    Long id,
+    String titulo,
+    String autor,
+    String idioma,
+    Integer numeroDescargas
+    ) {
+}
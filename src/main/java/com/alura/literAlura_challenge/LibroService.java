@@ -1,46 +1,104 @@
 package com.alura.literAlura_challenge;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class LibroService {
+    private static final Logger log = LoggerFactory.getLogger(LibroService.class);
 
     @Autowired
     private LibroRepository libroRepository;
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final String GUTENBERG_API_URL = "https://gutendex.com/books/";
+    @Autowired
+    private AutorRepository autorRepository;
+
+    @Autowired
+    private IngestaLibrosService ingestaLibrosService;
+
+    @Autowired
+    private CacheRespuestasGutendex cacheRespuestas;
+
+    @Autowired
+    private GutendexClient gutendexClient;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    // Solo existe con literalura.catalogo-memoria.habilitado=true
+    @Autowired(required = false)
+    private CatalogoEnMemoria catalogoEnMemoria;
+
+    @Value("${literalura.busqueda.vigencia:7d}")
+    private Duration vigenciaBusqueda;
+
+    private Timer busquedasLocales;
+    private Timer busquedasRemotas;
+
+    static final int TAMANO_PAGINA_BUSQUEDA = 32;
+    static final String AUTOR_DESCONOCIDO = "Autor desconocido";
+    static final int TAMANO_PAGINA_LISTADO = 500;
+
+    @PostConstruct
+    void registrarMetricas() {
+        busquedasLocales = timerBusquedas("local");
+        busquedasRemotas = timerBusquedas("remota");
+    }
+
+    /**
+     * Latencia de las búsquedas: "local" si se respondió con la BD, "remota" si hubo que consultar la API
+     * (incluye la consulta local previa y el guardado de los resultados)
+     */
+    private Timer timerBusquedas(String origen) {
+        return Timer.builder("literalura.busqueda")
+            .description("Duración de las búsquedas de libros")
+            .tag("origen", origen)
+            .publishPercentileHistogram()
+            .register(registro);
+    }
 
     /**
      * Obtiene todos los libros disponibles desde la API de Gutenberg
      * y los guarda en la base de datos local
      */
     public List<LibroDTO> obtenerLibros() {
-        try {
-            ResponseEntity<GutenbergResponse> response = restTemplate.getForEntity(
-                GUTENBERG_API_URL, GutenbergResponse.class);
-            
-            if (response.getBody() != null && response.getBody().results != null) {
-                List<LibroDTO> libros = response.getBody().results.stream()
-                    .map(this::convertirDesdeAPI)
-                    .collect(Collectors.toList());
-                
-                // Guardar todos los libros en la BD
-                guardarLibrosEnBD(response.getBody().results);
-                
-                return libros;
-            }
-        } catch (Exception e) {
-            System.err.println("Error al obtener libros de la API: " + e.getMessage());
-        }
-        
-        return new ArrayList<>();
+        return obtenerLibrosAsync().join();
+    }
+
+    /**
+     * Obtiene la primera página del catálogo de la API de Gutenberg sin bloquear el hilo que llama.
+     * Si la API no está disponible, responde con la primera página del catálogo local
+     */
+    public CompletableFuture<List<LibroDTO>> obtenerLibrosAsync() {
+        return gutendexClient.obtenerPagina(1)
+            .thenApply(FiltroTraza.conTraza(this::procesarRespuesta))
+            .exceptionally(FiltroTraza.conTraza(error -> {
+                log.warn("Error al obtener libros de la API: {}", mensajeDe(error));
+                return obtenerPrimeraPaginaDesdeBD();
+            }));
     }
 
     /**
@@ -48,156 +106,359 @@ public class LibroService {
      * @return Lista de libros desde la BD
      */
     public List<LibroDTO> obtenerLibrosDesdeBD() {
+        if (usarCatalogoEnMemoria()) {
+            return catalogoEnMemoria.todos();
+        }
         try {
             List<Libro> librosBD = libroRepository.findAll();
             return librosBD.stream()
                 .map(LibroDTO::new)
                 .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error al obtener libros desde la BD: " + e.getMessage());
+            log.error("Error al obtener libros desde la BD", e);
             return new ArrayList<>();
         }
     }
 
     /**
-     * Busca libros por término de búsqueda en la API de Gutenberg
-     * y los guarda en la base de datos local
-     * @param searchTerm Término(s) de búsqueda (pueden ser múltiples separados por espacios)
-     * @return Lista de libros que coinciden con la búsqueda
+     * Recorre los autores registrados en orden alfabético, trayendo de la BD una página a la vez
+     * @param accion Se invoca con el nombre de cada autor
+     * @return Cantidad de autores recorridos
      */
-    public List<LibroDTO> buscarLibros(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return obtenerLibros();
+    public int recorrerAutores(Consumer<String> accion) {
+        if (usarCatalogoEnMemoria()) {
+            List<String> nombres = catalogoEnMemoria.nombresDeAutores();
+            nombres.forEach(accion);
+            return nombres.size();
         }
+        int total = 0;
+        String ultimo = "";
+        while (true) {
+            List<String> pagina = autorRepository.listarNombres(ultimo, Limit.of(TAMANO_PAGINA_LISTADO));
+            pagina.forEach(accion);
+            total += pagina.size();
+            if (pagina.size() < TAMANO_PAGINA_LISTADO) {
+                return total;
+            }
+            ultimo = pagina.get(pagina.size() - 1);
+        }
+    }
 
-        String searchUrl = construirUrlBusqueda(searchTerm);
-        
-        try {
-            ResponseEntity<GutenbergResponse> response = restTemplate.getForEntity(
-                searchUrl, GutenbergResponse.class);
-            
-            if (response.getBody() != null && response.getBody().results != null) {
-                List<LibroDTO> libros = response.getBody().results.stream()
-                    .map(this::convertirDesdeAPI)
-                    .collect(Collectors.toList());
-                
-                // Guardar los libros encontrados en la BD
-                guardarLibrosEnBD(response.getBody().results);
-                
-                return libros;
+    /**
+     * Recorre en orden alfabético los autores vivos en el año indicado, con los títulos de sus libros
+     * @param anio Año que debe estar entre el nacimiento y el fallecimiento del autor
+     * @param accion Se invoca con cada autor
+     * @return Cantidad de autores recorridos
+     */
+    public int recorrerAutoresVivosEn(int anio, Consumer<AutorDTO> accion) {
+        if (usarCatalogoEnMemoria()) {
+            List<AutorDTO> vivos = catalogoEnMemoria.autoresVivosEn(anio);
+            vivos.forEach(accion);
+            return vivos.size();
+        }
+        int total = 0;
+        String ultimo = "";
+        while (true) {
+            List<AutorDTO> pagina = autorRepository.listarVivosEnAnio(anio, ultimo, Limit.of(TAMANO_PAGINA_LISTADO));
+            if (!pagina.isEmpty()) {
+                Map<Long, List<String>> titulos = libroRepository.listarTitulosDeAutores(
+                        pagina.stream().map(AutorDTO::id).toList()).stream()
+                    .collect(Collectors.groupingBy(TituloDeAutor::autorId,
+                        Collectors.mapping(TituloDeAutor::titulo, Collectors.toList())));
+                pagina.forEach(autor -> accion.accept(autor.conTitulos(titulos.getOrDefault(autor.id(), List.of()))));
             }
-        } catch (Exception e) {
-            System.err.println("Error al buscar libros: " + e.getMessage());
+            total += pagina.size();
+            if (pagina.size() < TAMANO_PAGINA_LISTADO) {
+                return total;
+            }
+            ultimo = pagina.get(pagina.size() - 1).nombre();
         }
-        
-        return new ArrayList<>();
     }
 
     /**
-     * Construye la URL de búsqueda para la API de Gutenberg
+     * Recorre los libros registrados en un idioma, trayendo de la BD una página a la vez
+     * @param idioma Código de idioma (es, en, fr, etc.), sin distinguir mayúsculas
+     * @param accion Se invoca con cada libro
+     * @return Cantidad de libros recorridos
      */
-    private String construirUrlBusqueda(String searchTerm) {
-        String terminoLimpio = searchTerm.trim().replace(" ", "%20");
-        return GUTENBERG_API_URL + "?search=" + terminoLimpio;
+    public int recorrerLibrosPorIdioma(String idioma, Consumer<LibroResumenDTO> accion) {
+        String codigo = idioma.trim().toLowerCase(Locale.ROOT);
+        if (usarCatalogoEnMemoria()) {
+            List<LibroResumenDTO> libros = catalogoEnMemoria.librosPorIdioma(codigo);
+            libros.forEach(accion);
+            return libros.size();
+        }
+        int total = 0;
+        long ultimoId = 0;
+        while (true) {
+            List<LibroResumenDTO> pagina = libroRepository.listarPorIdioma(codigo, ultimoId, Limit.of(TAMANO_PAGINA_LISTADO));
+            pagina.forEach(accion);
+            total += pagina.size();
+            if (pagina.size() < TAMANO_PAGINA_LISTADO) {
+                return total;
+            }
+            ultimoId = pagina.get(pagina.size() - 1).id();
+        }
     }
 
     /**
-     * Convierte un libro de la API de Gutenberg a nuestro DTO
+     * Obtiene una página del catálogo local ordenada por id, paginada por clave
+     * @param cursor Cursor de la página anterior; null o vacío para la primera página
+     * @param tamano Cantidad de libros por página
+     * @throws IllegalArgumentException si el cursor no es válido
      */
-    private LibroDTO convertirDesdeAPI(GutenbergBook apiBook) {
-        return new LibroDTO(
-            apiBook.title != null ? apiBook.title : "Título desconocido",
-            obtenerNombreAutor(apiBook.authors),
-            obtenerFechaFallecimiento(apiBook.authors),
-            obtenerFechaNacimiento(apiBook.authors),
-            obtenerNumeroDescargas(apiBook.download_count),
-            obtenerIdioma(apiBook.languages)
-        );
+    public PaginaLibros obtenerPaginaCatalogo(String cursor, int tamano) {
+        long despuesDeId = PaginaLibros.idDesdeCursor(cursor);
+        if (usarCatalogoEnMemoria()) {
+            return catalogoEnMemoria.pagina(despuesDeId, tamano);
+        }
+        List<Libro> libros = libroRepository.findByIdGreaterThanOrderByIdAsc(despuesDeId, Limit.of(tamano));
+        String siguiente = libros.size() < tamano ? null
+            : PaginaLibros.cursorDespuesDe(libros.get(libros.size() - 1).getId());
+        return new PaginaLibros(convertirDesdeBD(libros), siguiente);
     }
 
     /**
-     * Guarda los libros de la API en la base de datos local
-     */
-    private void guardarLibrosEnBD(List<GutenbergBook> apiBooks) {
-        for (GutenbergBook apiBook : apiBooks) {
-            try {
-                // Verificar si el libro ya existe en la BD
-                if (!libroRepository.existsByTitulo(apiBook.title)) {
-                    Libro libro = new Libro();
-                    libro.setTitulo(apiBook.title);
-                    libro.setAutor(obtenerNombreAutor(apiBook.authors));
-                    libro.setFechaFallecimiento(obtenerFechaFallecimiento(apiBook.authors));
-                    libro.setFechaNacimiento(obtenerFechaNacimiento(apiBook.authors));
-                    libro.setNumeroDescargas(obtenerNumeroDescargas(apiBook.download_count));
-                    libro.setIdioma(obtenerIdioma(apiBook.languages));
-                    
-                    libroRepository.save(libro);
-                    System.out.println("Libro guardado en BD: " + apiBook.title);
+     * Recorre todo el catálogo local leyendo del cursor de la BD, sin cargarlo en memoria.
+     * Cada libro se entrega en cuanto se leen todas sus filas de autores
+     * @param accion Se invoca con cada libro, en orden de id
+     * @return Cantidad de libros recorridos
+     */
+    @Transactional(readOnly = true)
+    public int recorrerCatalogoCompleto(Consumer<LibroDTO> accion) {
+        int[] total = {0};
+        try (Stream<FilaExportacion> filas = libroRepository.leerCatalogoParaExportar()) {
+            List<FilaExportacion> delLibro = new ArrayList<>();
+            filas.forEach(fila -> {
+                if (!delLibro.isEmpty() && !delLibro.get(0).libroId().equals(fila.libroId())) {
+                    accion.accept(convertirDesdeFilas(delLibro));
+                    total[0]++;
+                    delLibro.clear();
                 }
-            } catch (Exception e) {
-                System.err.println("Error al guardar libro en BD: " + apiBook.title + " - " + e.getMessage());
+                delLibro.add(fila);
+            });
+            if (!delLibro.isEmpty()) {
+                accion.accept(convertirDesdeFilas(delLibro));
+                total[0]++;
             }
         }
+        return total[0];
+    }
+
+    private LibroDTO convertirDesdeFilas(List<FilaExportacion> filas) {
+        FilaExportacion principal = filas.get(0);
+        List<String> autores = filas.stream()
+            .map(FilaExportacion::autor)
+            .filter(autor -> autor != null)
+            .toList();
+        return new LibroDTO(
+            principal.titulo(),
+            principal.autor() != null ? principal.autor() : AUTOR_DESCONOCIDO,
+            principal.anioFallecimiento(),
+            principal.anioNacimiento(),
+            principal.numeroDescargas(),
+            principal.idioma(),
+            autores
+        );
     }
 
-    private String obtenerNombreAutor(List<GutenbergAuthor> authors) {
-        return authors != null && !authors.isEmpty() 
-            ? authors.get(0).name 
-            : "Autor desconocido";
+    /**
+     * Busca libros por término de búsqueda, primero en la base de datos local
+     * y, si no hay resultados vigentes, en la API de Gutenberg
+     * @param searchTerm Término(s) de búsqueda (pueden ser múltiples separados por espacios)
+     * @return Lista de libros que coinciden con la búsqueda
+     */
+    public List<LibroDTO> buscarLibros(String searchTerm) {
+        return buscarLibros(searchTerm, 0, TAMANO_PAGINA_BUSQUEDA);
+    }
+
+    /**
+     * Busca una página de libros por término de búsqueda, esperando el resultado
+     * @see #buscarLibrosAsync(String, int, int)
+     */
+    public List<LibroDTO> buscarLibros(String searchTerm, int pagina, int tamano) {
+        return buscarLibrosAsync(searchTerm, pagina, tamano).join();
+    }
+
+    /**
+     * Busca una página de libros por término de búsqueda. Los resultados locales se devuelven
+     * ordenados por relevancia; la API solo se consulta si la BD no tiene coincidencias o si
+     * las que tiene superan la vigencia configurada, y su respuesta se une a los resultados locales sin repetir libros.
+     * La llamada a la API no bloquea el hilo que llama
+     * @param searchTerm Término(s) de búsqueda separados por espacios, con los filtros de {@link ConsultaLibros}
+     *                   (por ejemplo {@code author:austen lang:en downloads>1000 alive:1800})
+     * @param pagina Número de página (empieza en 0)
+     * @param tamano Cantidad de libros por página
+     * @return Lista de libros que coinciden con la búsqueda. Si la API o la BD fallan y no quedan resultados que
+     *         mostrar, se completa con ese error (un {@link GutendexException} si fue la API): no es lo mismo que
+     *         no encontrar libros
+     * @throws IllegalArgumentException si un filtro no es válido
+     */
+    public CompletableFuture<List<LibroDTO>> buscarLibrosAsync(String searchTerm, int pagina, int tamano) {
+        ConsultaLibros consulta = ConsultaLibros.interpretar(searchTerm);
+        if (consulta.estaVacia()) {
+            return obtenerLibrosAsync();
+        }
+
+        Timer.Sample muestra = Timer.start(registro);
+        List<Libro> locales = new ArrayList<>();
+        RuntimeException errorLocal = null;
+        try {
+            locales = libroRepository.buscarClasificados(consulta, pagina, tamano);
+        } catch (RuntimeException e) {
+            log.error("Error al buscar libros en la BD", e);
+            errorLocal = e;
+        }
+        // Las páginas siguientes a la primera solo existen en el catálogo local
+        if (!locales.isEmpty() && (pagina > 0 || sonVigentes(locales))) {
+            List<LibroDTO> resultado = convertirDesdeBD(locales);
+            muestra.stop(busquedasLocales);
+            return CompletableFuture.completedFuture(resultado);
+        }
+        if (pagina > 0) {
+            muestra.stop(busquedasLocales);
+            return errorLocal != null ? CompletableFuture.failedFuture(errorLocal) : CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        List<LibroDTO> respaldo = convertirDesdeBD(locales);
+        RuntimeException errorBD = errorLocal;
+        return buscarEnAPI(consulta, respaldo).thenApply(remotos -> {
+            muestra.stop(busquedasRemotas);
+            if (remotos.isEmpty() && errorBD != null) {
+                // Sin la BD no se sabe si había coincidencias locales
+                throw errorBD;
+            }
+            // Si la API falló, tiene el circuito abierto o no devolvió nada quedan los datos antiguos: mejor que ninguno
+            return unirSinRepetir(remotos, respaldo);
+        });
     }
 
-    private String obtenerNumeroDescargas(Integer downloadCount) {
-        return downloadCount != null 
-            ? String.valueOf(downloadCount) 
-            : "0";
+    /**
+     * Busca en la API de Gutenberg con los filtros que ella resuelve y verifica en la respuesta los que no,
+     * pasando por la caché de respuestas para no repetir búsquedas recientes
+     * @param respaldo Resultados locales que se mostrarán si la API falla; si no hay, el error se propaga
+     */
+    private CompletableFuture<List<LibroDTO>> buscarEnAPI(ConsultaLibros consulta, List<LibroDTO> respaldo) {
+        return cacheRespuestas.obtenerAsync(consulta.comoTexto(),
+                termino -> gutendexClient.buscar(consulta)
+                    .thenApply(FiltroTraza.conTraza(this::procesarRespuesta))
+                    .thenApply(libros -> libros.stream().filter(consulta::cumple).collect(Collectors.toList())))
+            .exceptionally(FiltroTraza.conTraza(error -> {
+                log.warn("Error al buscar libros en la API: {}", mensajeDe(error));
+                if (respaldo.isEmpty()) {
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                }
+                return new ArrayList<>();
+            }));
     }
 
-    private String obtenerIdioma(List<String> languages) {
-        return languages != null && !languages.isEmpty() 
-            ? languages.get(0) 
-            : "en";
+    /**
+     * Une dos listas de resultados en orden, sin repetir libros: un libro de la API que ya estaba guardado
+     * (mismo título y autor principal) aparece una sola vez, con los datos de la primera lista
+     */
+    static List<LibroDTO> unirSinRepetir(List<LibroDTO> primeros, List<LibroDTO> siguientes) {
+        Map<List<String>, LibroDTO> unidos = new LinkedHashMap<>();
+        for (List<LibroDTO> libros : List.of(primeros, siguientes)) {
+            libros.forEach(libro -> unidos.putIfAbsent(Arrays.asList(libro.titulo(), libro.autor()), libro));
+        }
+        return new ArrayList<>(unidos.values());
     }
 
-    private String obtenerFechaNacimiento(List<GutenbergAuthor> authors) {
-        if (authors != null && !authors.isEmpty() && authors.get(0).birth_year != null) {
-            return String.valueOf(authors.get(0).birth_year);
+    /**
+     * Convierte la respuesta de la API a DTOs y guarda los libros en la base de datos local.
+     * Ambos salen del mismo {@link LibroGutendex}, leído una sola vez de la respuesta
+     */
+    private List<LibroDTO> procesarRespuesta(PaginaGutendex respuesta) {
+        if (respuesta == null) {
+            return new ArrayList<>();
         }
-        return "Fecha de nacimiento no disponible";
+        List<LibroDTO> libros = new ArrayList<>(respuesta.libros().size());
+        for (LibroGutendex libro : respuesta.libros()) {
+            libros.add(libro.aLibroDTO());
+        }
+
+        // Guardar los libros encontrados en la BD
+        guardarLibrosEnBD(respuesta.libros());
+
+        return libros;
     }
 
-    private String obtenerFechaFallecimiento(List<GutenbergAuthor> authors) {
-        if (authors != null && !authors.isEmpty() && authors.get(0).death_year != null) {
-            return String.valueOf(authors.get(0).death_year);
+    /**
+     * Los resultados locales son vigentes si al menos uno se actualizó dentro del plazo configurado
+     */
+    private boolean sonVigentes(List<Libro> libros) {
+        LocalDateTime limite = LocalDateTime.now().minus(vigenciaBusqueda);
+        return libros.stream()
+            .map(Libro::getActualizadoEn)
+            .anyMatch(actualizado -> actualizado != null && actualizado.isAfter(limite));
+    }
+
+    private List<LibroDTO> obtenerPrimeraPaginaDesdeBD() {
+        try {
+            return convertirDesdeBD(libroRepository.findAll(
+                PageRequest.of(0, TAMANO_PAGINA_BUSQUEDA, Sort.by("id"))).getContent());
+        } catch (Exception e) {
+            log.error("Error al obtener libros desde la BD", e);
+            return new ArrayList<>();
         }
-        return "Fecha de fallecimiento no disponible";
     }
 
-    // ===== CLASES INTERNAS PARA MAPEAR LA RESPUESTA DE LA API =====
+    private List<LibroDTO> convertirDesdeBD(List<Libro> libros) {
+        return libros.stream()
+            .map(LibroDTO::new)
+            .collect(Collectors.toList());
+    }
+
+    private boolean usarCatalogoEnMemoria() {
+        return catalogoEnMemoria != null && catalogoEnMemoria.estaCargado();
+    }
+
+    private static String mensajeDe(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return causa.getMessage();
+    }
 
     /**
-     * Respuesta principal de la API de Gutenberg
+     * Obtiene una página concreta del catálogo de la API de Gutenberg, ordenado por id de Gutenberg.
+     * A diferencia de las búsquedas, los errores se propagan para que el llamador decida qué hacer
+     * @param pagina Número de página (empieza en 1)
      */
-    public static class GutenbergResponse {
-        public List<GutenbergBook> results;
+    PaginaGutendex obtenerPagina(int pagina) {
+        PaginaGutendex respuesta;
+        try {
+            respuesta = gutendexClient.obtenerPaginaOrdenadaPorId(pagina).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+        if (respuesta == null) {
+            throw new IllegalStateException("Respuesta vacía para la página " + pagina);
+        }
+        return respuesta;
     }
 
     /**
-     * Representa un libro individual de la API de Gutenberg
-     * Solo incluye los campos que queremos guardar en la BD
+     * Guarda los libros de la API en la base de datos local.
+     * Todo el lote se persiste en una sola transacción a través de {@link IngestaLibrosService}
      */
-    public static class GutenbergBook {
-        public String title;
-        public List<GutenbergAuthor> authors;
-        public Integer download_count;
-        public List<String> languages;
+    void guardarLibrosEnBD(List<LibroGutendex> librosApi) {
+        List<Libro> libros = convertirAEntidades(librosApi);
+        try {
+            List<Libro> guardados = ingestaLibrosService.guardarNuevos(libros);
+            log.info("Libros guardados en BD: {} de {}", guardados.size(), librosApi.size());
+            guardados.forEach(libro -> log.debug("Libro guardado en BD: {}", libro.getTitulo()));
+        } catch (Exception e) {
+            log.error("Error al guardar {} libros en BD", librosApi.size(), e);
+        }
     }
 
     /**
-     * Representa un autor de la API de Gutenberg
+     * Convierte los libros de la API de Gutenberg a entidades listas para persistir
      */
-    public static class GutenbergAuthor {
-        public String name;
-        public Integer birth_year;
-        public Integer death_year;
+    List<Libro> convertirAEntidades(List<LibroGutendex> librosApi) {
+        List<Libro> libros = new ArrayList<>(librosApi.size());
+        for (LibroGutendex libro : librosApi) {
+            libros.add(libro.aEntidad());
+        }
+        return libros;
     }
 }
@@ -0,0 +1,10 @@
+package com.alura.literAlura_challenge;
+
+import java.util.List;
+
+/**
+ * Publicado por {@link IngestaLibrosService} con los libros recién insertados (con ids y autores resueltos).
+ * Los oyentes que mantienen copias del catálogo lo reciben después del commit
+ */
+public record LibrosGuardadosEvent(List<Libro> libros) {
+}
@@ -1,21 +1,57 @@
 package com.alura.literAlura_challenge;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import java.lang.management.ManagementFactory;
 
+/**
+ * Modos de arranque, uno por perfil (--spring.profiles.active=...):
+ * consola (por defecto) muestra el menú sin servidor web; servidor solo atiende la API REST;
+ * ingesta carga el catálogo y termina ({@link IngestaPorLotesRunner})
+ */
 @SpringBootApplication
+@EnableScheduling
 public class LiterAluraChallengeApplication {
+	private static final Logger log = LoggerFactory.getLogger(LiterAluraChallengeApplication.class);
+
+	static final String PERFIL_CONSOLA = "consola";
+	static final String PERFIL_SERVIDOR = "servidor";
+	static final String PERFIL_INGESTA = "ingesta";
 
 	public static void main(String[] args) {
 		ConfigurableApplicationContext context = SpringApplication.run(LiterAluraChallengeApplication.class, args);
-		
-		// Obtener el MenuService y mostrar el menú
-		MenuService menuService = context.getBean(MenuService.class);
-		menuService.mostrarMenu();
-		
-		// Cerrar la aplicación después de salir del menú
+
+		if (context.getEnvironment().acceptsProfiles(Profiles.of(PERFIL_SERVIDOR))) {
+			// El servidor web sigue atendiendo hasta que se detiene el proceso
+			return;
+		}
+		if (context.getEnvironment().acceptsProfiles(Profiles.of(PERFIL_CONSOLA))) {
+			log.info("Menú listo en {} ms desde el inicio de la JVM", ManagementFactory.getRuntimeMXBean().getUptime());
+			MenuService menuService = context.getBean(MenuService.class);
+			menuService.mostrarMenu();
+		}
+
+		// Cerrar la aplicación después de salir del menú (o de terminar la ingesta)
 		context.close();
 	}
 
+	/**
+	 * En modo consola las tareas de arranque marcadas con @Async (verificar las estadísticas, cargar el índice
+	 * de sugerencias y el catálogo en memoria) corren en segundo plano y el menú no las espera. En los demás
+	 * modos @Async no tiene efecto y terminan antes de que la aplicación quede lista
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@Profile(PERFIL_CONSOLA)
+	@EnableAsync
+	static class ArranqueConsola {
+	}
+
 }
@@ -1,42 +1,136 @@
 package com.alura.literAlura_challenge;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Scanner;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
+/**
+ * Menú de consola. La salida pasa por un buffer que se vuelca antes de cada pregunta, en vez de escribir
+ * en la consola línea por línea; las búsquedas corren en segundo plano para poder mostrar el progreso,
+ * cancelarlas o sumar otras mientras tanto
+ */
 @Service
 public class MenuService {
 
+    // Libros por página en el listado de la opción 2
+    static final int LIBROS_POR_PAGINA = 100;
+
+    // Cada cuánto se revisa la entrada y se actualiza el progreso de una búsqueda en curso
+    private static final long INTERVALO_PROGRESO_MS = 250;
+
     @Autowired
     private LibroService libroService;
-    
-    private Scanner scanner = new Scanner(System.in);
+
+    @Autowired
+    private CosechaCatalogoService cosechaCatalogoService;
+
+    @Autowired
+    private ImportacionCatalogoService importacionCatalogoService;
+
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    // No existe con literalura.sugerencias.habilitado=false
+    @Autowired(required = false)
+    private IndiceSugerencias indiceSugerencias;
+
+    @Value("${literalura.consola.busquedas-simultaneas:4}")
+    private int busquedasSimultaneas;
+
+    // Consultas locales de las búsquedas en segundo plano; las de la API ya son asíncronas y no ocupan estos hilos
+    private ExecutorService executor;
+
+    private EntradaConsola entrada;
+    private PrintWriter salida;
+
+    @PostConstruct
+    void iniciarExecutor() {
+        AtomicInteger contadorHilos = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, busquedasSimultaneas), tarea -> {
+            Thread hilo = new Thread(tarea, "consola-busqueda-" + contadorHilos.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    // Sin interrumpir: una consulta cancelada termina en segundo plano y lo que trae de la API se guarda igual
+    @PreDestroy
+    void detenerExecutor() {
+        executor.shutdown();
+    }
 
     public void mostrarMenu() {
+        mostrarMenu(System.in, System.out, Charset.defaultCharset());
+    }
+
+    void mostrarMenu(InputStream consolaEntrada, OutputStream consolaSalida, Charset charset) {
+        entrada = new EntradaConsola(consolaEntrada, charset);
+        salida = new PrintWriter(new BufferedWriter(new OutputStreamWriter(consolaSalida, charset), 1 << 16));
         int opcion;
         do {
-            System.out.println("\n=== LITERALURA - MENÚ PRINCIPAL ===");
-            System.out.println("1. Buscar libro por título");
-            System.out.println("2. Listar libros registrados");
-            System.out.println("3. Listar autores registrados");
-            System.out.println("4. Listar autores vivos en un determinado año");
-            System.out.println("5. Listar libros por idioma");
-            System.out.println("0. Salir");
-            System.out.print("Seleccione una opción: ");
-            
+            salida.println("\n=== LITERALURA - MENÚ PRINCIPAL ===");
+            salida.println("1. Buscar libro por título, autor o filtros");
+            salida.println("2. Listar libros registrados");
+            salida.println("3. Listar autores registrados");
+            salida.println("4. Listar autores vivos en un determinado año");
+            salida.println("5. Listar libros por idioma");
+            salida.println("6. Cosechar catálogo completo de Gutenberg");
+            salida.println("7. Mostrar estadísticas del catálogo");
+            salida.println("8. Importar catálogo desde un archivo CSV de Gutenberg");
+            salida.println("0. Salir");
+            salida.print("Seleccione una opción: ");
+
+            String linea = leerLinea();
+            if (linea == null) {
+                // Se cerró la entrada (fin de archivo o Ctrl+D): se sale como con la opción 0
+                opcion = 0;
+                salida.println();
+                continue;
+            }
             try {
-                opcion = Integer.parseInt(scanner.nextLine());
+                opcion = Integer.parseInt(linea.trim());
                 procesarOpcion(opcion);
             } catch (NumberFormatException e) {
-                System.out.println("Error: Por favor ingrese un número válido.");
+                salida.println("Error: Por favor ingrese un número válido.");
                 opcion = -1;
             }
         } while (opcion != 0);
-        
-        System.out.println("¡Hasta luego!");
-        scanner.close();
+
+        salida.println("¡Hasta luego!");
+        salida.flush();
+    }
+
+    /**
+     * Vuelca lo que quedó en el buffer y espera la siguiente línea
+     * @return La línea, o null si se cerró la entrada
+     */
+    private String leerLinea() {
+        salida.flush();
+        return entrada.leerLinea();
     }
 
     private void procesarOpcion(int opcion) {
@@ -56,140 +150,314 @@ public class MenuService {
             case 5:
                 listarLibrosPorIdioma();
                 break;
+            case 6:
+                cosecharCatalogo();
+                break;
+            case 7:
+                mostrarEstadisticas();
+                break;
+            case 8:
+                importarCatalogo();
+                break;
             case 0:
-                System.out.println("Saliendo del sistema...");
+                salida.println("Saliendo del sistema...");
                 break;
             default:
-                System.out.println("Opción no válida. Por favor intente de nuevo.");
+                salida.println("Opción no válida. Por favor intente de nuevo.");
         }
     }
 
     private void buscarLibroPorTitulo() {
-        System.out.println("\n--- BUSCAR LIBRO POR TÍTULO ---");
-        System.out.print("Ingrese el título del libro: ");
-        String titulo = scanner.nextLine();
-        
-        List<LibroDTO> libros = libroService.buscarLibros(titulo);
+        salida.println("\n--- BUSCAR LIBRO POR TÍTULO ---");
+        salida.println("Filtros opcionales: author:austen lang:en downloads>1000 alive:1800");
+        salida.print("Ingrese el título del libro (varios separados por ';'): ");
+        String texto = leerLinea();
+        if (texto == null) {
+            return;
+        }
+        List<String> terminos = separarTerminos(texto);
+        if (terminos.isEmpty()) {
+            terminos = List.of("");
+        }
+
+        Map<String, CompletableFuture<List<LibroDTO>>> busquedas = new LinkedHashMap<>();
+        terminos.forEach(termino -> busquedas.put(termino, iniciarBusqueda(termino)));
+        salida.println("Buscando... escriba otro título para sumarlo o 'c' para cancelar.");
+        boolean cancelada = esperarBusquedas(busquedas);
+        mostrarResultados(busquedas, cancelada);
+    }
+
+    private CompletableFuture<List<LibroDTO>> iniciarBusqueda(String termino) {
+        // La consulta local corre en el executor; la de la API ya es asíncrona
+        return CompletableFuture.supplyAsync(
+                () -> libroService.buscarLibrosAsync(termino, 0, LibroService.TAMANO_PAGINA_BUSQUEDA), executor)
+            .thenCompose(Function.identity());
+    }
+
+    /**
+     * Espera a que terminen las búsquedas atendiendo la entrada: 'c' cancela las pendientes y cualquier otro
+     * texto se suma como una búsqueda más
+     * @return true si se canceló
+     */
+    private boolean esperarBusquedas(Map<String, CompletableFuture<List<LibroDTO>>> busquedas) {
+        long inicio = System.nanoTime();
+        boolean mostroProgreso = false;
+        try {
+            while (busquedas.values().stream().anyMatch(busqueda -> !busqueda.isDone())) {
+                String linea = entrada.leerLinea(INTERVALO_PROGRESO_MS, TimeUnit.MILLISECONDS);
+                if (linea != null && linea.trim().equalsIgnoreCase("c")) {
+                    busquedas.values().forEach(busqueda -> busqueda.cancel(false));
+                    if (mostroProgreso) {
+                        salida.println();
+                    }
+                    salida.println("Búsqueda cancelada.");
+                    return true;
+                }
+                if (linea != null) {
+                    separarTerminos(linea).forEach(termino ->
+                        busquedas.computeIfAbsent(termino, this::iniciarBusqueda));
+                }
+                long terminadas = busquedas.values().stream().filter(CompletableFuture::isDone).count();
+                // Sobrescribe la misma línea con las búsquedas terminadas y el tiempo transcurrido
+                salida.printf("\rBuscando: %d de %d terminadas (%.1f s)", terminadas, busquedas.size(),
+                    (System.nanoTime() - inicio) / 1e9);
+                salida.flush();
+                mostroProgreso = true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            busquedas.values().forEach(busqueda -> busqueda.cancel(false));
+            return true;
+        }
+        if (mostroProgreso) {
+            salida.println();
+        }
+        return false;
+    }
+
+    /**
+     * Une los resultados de todas las búsquedas terminadas, sin repetir libros, en el orden de los términos.
+     * Un mismo libro puede llegar de la BD y de la API con datos distintos (por ejemplo las descargas): se
+     * compara por título y autor principal, como en {@link LibroService#unirSinRepetir(List, List)}
+     */
+    private void mostrarResultados(Map<String, CompletableFuture<List<LibroDTO>>> busquedas, boolean cancelada) {
+        List<LibroDTO> libros = new ArrayList<>();
+        int[] fallidas = {0};
+        busquedas.forEach((termino, busqueda) -> {
+            if (!busqueda.isDone() || busqueda.isCancelled()) {
+                return;
+            }
+            try {
+                List<LibroDTO> unidos = LibroService.unirSinRepetir(libros, busqueda.join());
+                libros.clear();
+                libros.addAll(unidos);
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IllegalArgumentException filtroInvalido) {
+                    salida.println("Búsqueda no válida (" + termino + "): " + filtroInvalido.getMessage());
+                } else {
+                    // La API o la BD fallaron y no había resultados anteriores que mostrar
+                    fallidas[0]++;
+                    salida.println("No se pudo completar la búsqueda (" + termino + "): " + causaDe(e));
+                }
+            }
+        });
         if (libros.isEmpty()) {
-            System.out.println("No se encontraron libros con ese título.");
+            if (cancelada || fallidas[0] == busquedas.size()) {
+                return;
+            }
+            salida.println("No se encontraron libros con ese título.");
+            if (indiceSugerencias == null) {
+                return;
+            }
+            Set<String> sugerencias = new LinkedHashSet<>();
+            busquedas.keySet().forEach(termino ->
+                indiceSugerencias.sugerir(textoLibre(termino), 5).forEach(sugerencia -> sugerencias.add(sugerencia.texto())));
+            if (!sugerencias.isEmpty()) {
+                salida.println("¿Quiso decir...?");
+                sugerencias.forEach(sugerencia -> salida.println("  - " + sugerencia));
+            }
         } else {
-            System.out.println("Libros encontrados:");
+            salida.println(cancelada ? "Libros encontrados por las búsquedas que terminaron:" : "Libros encontrados:");
             libros.forEach(libro -> {
-                System.out.println("------- LIBRO -------");
-                System.out.println("Título: " + libro.titulo());
-                System.out.println("Autor: " + libro.autor());
-                System.out.println("Idioma: " + libro.idioma());
-                System.out.println("Descargas: " + libro.numeroDescargas());
-                System.out.println("---------------------");
+                salida.println("------- LIBRO -------");
+                salida.println("Título: " + libro.titulo());
+                salida.println("Autor: " + libro.autor());
+                salida.println("Idioma: " + libro.idioma());
+                salida.println("Descargas: " + libro.numeroDescargas());
+                salida.println("---------------------");
             });
         }
     }
 
+    // El mensaje de la API se muestra tal cual; el de la BD queda en el registro, porque incluye el SQL
+    private static String causaDe(CompletionException error) {
+        Throwable causa = error.getCause() != null ? error.getCause() : error;
+        if (causa instanceof DataAccessException) {
+            return "error de la base de datos (ver el registro)";
+        }
+        return causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+    }
+
+    // Solo las palabras sueltas de la búsqueda, sin los filtros: es lo que puede corregir el índice de sugerencias
+    private static String textoLibre(String termino) {
+        try {
+            return String.join(" ", ConsultaLibros.interpretar(termino).palabras());
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    // Términos separados por ';', sin vacíos ni repetidos
+    static List<String> separarTerminos(String texto) {
+        Set<String> terminos = new LinkedHashSet<>();
+        for (String termino : texto.split(";")) {
+            if (!termino.isBlank()) {
+                terminos.add(termino.trim());
+            }
+        }
+        return new ArrayList<>(terminos);
+    }
+
+    /**
+     * Lista el catálogo de a {@link #LIBROS_POR_PAGINA} libros, leyendo de la BD solo la página que se muestra
+     */
     private void listarLibrosRegistrados() {
-        System.out.println("\n--- LIBROS REGISTRADOS ---");
-        List<LibroDTO> libros = libroService.obtenerLibrosDesdeBD();
-        if (libros.isEmpty()) {
-            System.out.println("No hay libros registrados en el sistema.");
-        } else {
-            libros.forEach(libro -> {
-                System.out.println("Título: " + libro.titulo());
-                System.out.println("Autor: " + libro.autor());
-                System.out.println("Idioma: " + libro.idioma());
-                System.out.println("Descargas: " + libro.numeroDescargas());
-                System.out.println("---");
+        salida.println("\n--- LIBROS REGISTRADOS ---");
+        String cursor = null;
+        int mostrados = 0;
+        do {
+            PaginaLibros pagina = libroService.obtenerPaginaCatalogo(cursor, LIBROS_POR_PAGINA);
+            pagina.libros().forEach(libro -> {
+                salida.println("Título: " + libro.titulo());
+                salida.println("Autor: " + libro.autor());
+                salida.println("Idioma: " + libro.idioma());
+                salida.println("Descargas: " + libro.numeroDescargas());
+                salida.println("---");
             });
+            mostrados += pagina.libros().size();
+            cursor = pagina.siguienteCursor();
+            if (cursor != null) {
+                salida.print(mostrados + " libros mostrados. Enter para ver más, 'q' para volver: ");
+                String respuesta = leerLinea();
+                if (respuesta == null || respuesta.trim().equalsIgnoreCase("q")) {
+                    return;
+                }
+            }
+        } while (cursor != null);
+        if (mostrados == 0) {
+            salida.println("No hay libros registrados en el sistema.");
         }
     }
 
     private void listarAutoresRegistrados() {
-        System.out.println("\n--- AUTORES REGISTRADOS ---");
-        List<LibroDTO> libros = libroService.obtenerLibrosDesdeBD();
-        if (libros.isEmpty()) {
-            System.out.println("No hay autores registrados en el sistema.");
-        } else {
-            List<String> autores = libros.stream()
-                    .map(LibroDTO::autor)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList());
-            
-            autores.forEach(autor -> {
-                System.out.println("Autor: " + autor);
-                System.out.println("---");
-            });
+        salida.println("\n--- AUTORES REGISTRADOS ---");
+        int total = libroService.recorrerAutores(autor -> {
+            salida.println("Autor: " + autor);
+            salida.println("---");
+        });
+        if (total == 0) {
+            salida.println("No hay autores registrados en el sistema.");
         }
     }
 
     private void listarAutoresVivosEnAno() {
-        System.out.println("\n--- AUTORES VIVOS EN UN AÑO ---");
-        System.out.print("Ingrese el año: ");
+        salida.println("\n--- AUTORES VIVOS EN UN AÑO ---");
+        salida.print("Ingrese el año: ");
         try {
-            int ano = Integer.parseInt(scanner.nextLine());
-            List<LibroDTO> libros = libroService.obtenerLibrosDesdeBD();
-            
-            List<String> autores = libros.stream()
-                    .filter(libro -> {
-                        try {
-                            int anoNacimiento = Integer.parseInt(libro.fechaNacimiento());
-                            int anoFallecimiento = Integer.parseInt(libro.fechaFallecimiento());
-                            return anoNacimiento <= ano && anoFallecimiento >= ano;
-                        } catch (NumberFormatException e) {
-                            return false;
-                        }
-                    })
-                    .map(LibroDTO::autor)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList());
-            
-            if (autores.isEmpty()) {
-                System.out.println("No se encontraron autores que esten vivos en " + ano);
-            } else {
-                System.out.println("Autores que esten vivos en " + ano + ":");
-                autores.forEach(autor -> {
-                    // Find a book by this author to get their dates
-                    LibroDTO libroAutor = libros.stream()
-                            .filter(libro -> libro.autor().equals(autor))
-                            .findFirst()
-                            .orElse(null);
-                    
-                    if (libroAutor != null) {
-                        System.out.println("--------------------------------");
-                        System.out.println("Autor: " + autor);
-                        System.out.println("Fecha de nacimiento: " + libroAutor.fechaNacimiento());
-                        System.out.println("Fecha de fallecimiento: " + libroAutor.fechaFallecimiento());
-                        System.out.println("Libros publicados: " + libroAutor.titulo());
-                        System.out.println("--------------------------------");
-                    }
-                });
+            int ano = Integer.parseInt(leerLinea());
+            salida.println("Autores que esten vivos en " + ano + ":");
+            int total = libroService.recorrerAutoresVivosEn(ano, autor -> {
+                salida.println("--------------------------------");
+                salida.println("Autor: " + autor.nombre());
+                salida.println("Fecha de nacimiento: " + autor.anioNacimiento());
+                salida.println("Fecha de fallecimiento: " + autor.anioFallecimiento());
+                salida.println("Libros publicados: " + String.join(", ", autor.titulos()));
+                salida.println("--------------------------------");
+            });
+            if (total == 0) {
+                salida.println("No se encontraron autores que esten vivos en " + ano);
             }
         } catch (NumberFormatException e) {
-            System.out.println("Error: Por favor ingrese un año válido.");
+            salida.println("Error: Por favor ingrese un año válido.");
         }
     }
 
     private void listarLibrosPorIdioma() {
-        System.out.println("\n--- LIBROS POR IDIOMA ---");
-        System.out.print("Ingrese el idioma (es, en, fr, etc.): ");
-        String idioma = scanner.nextLine().toLowerCase();
-        
-        List<LibroDTO> libros = libroService.obtenerLibrosDesdeBD();
-        List<LibroDTO> librosPorIdioma = libros.stream()
-                .filter(libro -> libro.idioma().toLowerCase().contains(idioma))
-                .collect(Collectors.toList());
-        
-        if (librosPorIdioma.isEmpty()) {
-            System.out.println("No se encontraron libros en el idioma " + idioma);
+        salida.println("\n--- LIBROS POR IDIOMA ---");
+        salida.print("Ingrese el idioma (es, en, fr, etc.): ");
+        String idioma = leerLinea();
+        if (idioma == null) {
+            return;
+        }
+        idioma = idioma.trim().toLowerCase();
+
+        salida.println("Libros en " + idioma + ":");
+        int total = libroService.recorrerLibrosPorIdioma(idioma, libro -> {
+            salida.println("--------------------------------");
+            salida.println("Título: " + libro.titulo());
+            salida.println("Autor: " + (libro.autor() != null ? libro.autor() : LibroService.AUTOR_DESCONOCIDO));
+            salida.println("Idioma: " + libro.idioma());
+            salida.println("Descargas: " + libro.numeroDescargas());
+            salida.println("---");
+        });
+        if (total == 0) {
+            salida.println("No se encontraron libros en el idioma " + idioma);
+        }
+    }
+
+    private void cosecharCatalogo() {
+        salida.println("\n--- COSECHAR CATÁLOGO COMPLETO ---");
+        salida.println("Descargando el catálogo (se reanuda desde la última página guardada)...");
+        salida.flush();
+        CosechaCatalogoService.ResultadoCosecha resultado = cosechaCatalogoService.cosecharCatalogo();
+        salida.println("Páginas procesadas: " + resultado.paginasProcesadas());
+        salida.println("Libros nuevos guardados: " + resultado.librosGuardados());
+        if (resultado.completa()) {
+            salida.println("Cosecha completa.");
         } else {
-            System.out.println("Libros en " + idioma + ":");
-            librosPorIdioma.forEach(libro -> {
-                System.out.println("--------------------------------");
-                System.out.println("Título: " + libro.titulo());
-                System.out.println("Autor: " + libro.autor());
-                System.out.println("Idioma: " + libro.idioma());
-                System.out.println("Descargas: " + libro.numeroDescargas());
-                System.out.println("---");
-            });
+            salida.println("Cosecha detenida: " + resultado.error());
+            salida.println("Vuelva a ejecutar la opción para continuar desde donde quedó.");
+        }
+    }
+
+    private void importarCatalogo() {
+        salida.println("\n--- IMPORTAR CATÁLOGO DESDE ARCHIVO ---");
+        salida.print("Ruta del archivo (Enter para pg_catalog.csv): ");
+        String ruta = leerLinea();
+        if (ruta == null) {
+            return;
+        }
+        Path archivo = Path.of(ruta.isBlank() ? "pg_catalog.csv" : ruta.trim());
+        if (!Files.isReadable(archivo)) {
+            salida.println("No se puede leer el archivo " + archivo.toAbsolutePath());
+            return;
+        }
+        salida.println("Importando...");
+        salida.flush();
+        ImportacionCatalogoService.ResultadoImportacion resultado = importacionCatalogoService.importar(archivo);
+        salida.println("Registros leídos: " + resultado.registrosLeidos());
+        salida.println("Libros nuevos guardados: " + resultado.librosGuardados());
+        salida.println("Registros descartados: " + resultado.registrosDescartados());
+        if (!resultado.completa()) {
+            salida.println("Importación detenida: " + resultado.error());
         }
     }
+
+    private void mostrarEstadisticas() {
+        salida.println("\n--- ESTADÍSTICAS DEL CATÁLOGO ---");
+        EstadisticasService.ResumenEstadisticas resumen = estadisticasService.obtenerResumen(10);
+        salida.println("Libros registrados: " + resumen.totalLibros());
+        salida.println("Descargas totales: " + resumen.totalDescargas());
+        salida.println("\nLibros por idioma:");
+        resumen.librosPorIdioma().forEach((idioma, cantidad) -> salida.println("  " + idioma + ": " + cantidad));
+        salida.println("\nAutores más descargados:");
+        resumen.autoresMasDescargados().forEach(autor ->
+            salida.println("  " + autor.nombre() + " (" + autor.descargas() + " descargas)"));
+        salida.println("\nLibros más descargados:");
+        resumen.librosMasDescargados().forEach(libro ->
+            salida.println("  " + libro.titulo() + " (" + libro.numeroDescargas() + " descargas)"));
+        salida.println("\nAutores por década de nacimiento:");
+        resumen.autoresPorDecadaNacimiento().forEach((decada, cantidad) ->
+            salida.println("  " + decada + "s: " + cantidad));
+    }
 }
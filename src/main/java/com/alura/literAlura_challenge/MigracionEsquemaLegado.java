@@ -0,0 +1,129 @@
+package com.alura.literAlura_challenge;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Migra los libros guardados con el esquema anterior, que tenía el autor, sus fechas y las descargas
+ * como texto dentro de la tabla libros, al modelo con columnas numéricas y tabla de autores.
+ * Se ejecuta al arrancar, después de que Hibernate crea las tablas nuevas, y no hace nada
+ * si las columnas antiguas ya no existen.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+// Nadie lo inyecta: con inicialización diferida (perfiles consola e ingesta) no se crearía y no migraría
+@Lazy(false)
+public class MigracionEsquemaLegado {
+    private static final Logger log = LoggerFactory.getLogger(MigracionEsquemaLegado.class);
+
+    private static final List<String> COLUMNAS_LEGADAS =
+        List.of("autor", "fecha_nacimiento", "fecha_fallecimiento", "numero_descargas");
+    private static final int TAMANO_LOTE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private IngestaLibrosService ingestaLibrosService;
+
+    @PostConstruct
+    public void migrar() {
+        if (!existeColumna("autor")) {
+            return;
+        }
+        log.info("Migrando libros del esquema anterior...");
+
+        long ultimoId = 0;
+        int migrados = 0;
+        while (true) {
+            List<FilaLegada> filas = jdbcTemplate.query(
+                "SELECT id, autor, fecha_nacimiento, fecha_fallecimiento, numero_descargas FROM libros"
+                    + " WHERE id > ? ORDER BY id LIMIT " + TAMANO_LOTE,
+                (rs, n) -> new FilaLegada(rs.getLong("id"), rs.getString("autor"), rs.getString("fecha_nacimiento"),
+                    rs.getString("fecha_fallecimiento"), rs.getString("numero_descargas")),
+                ultimoId);
+            if (filas.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(estado -> migrarLote(filas));
+            ultimoId = filas.get(filas.size() - 1).id();
+            migrados += filas.size();
+        }
+
+        // Las columnas se eliminan solo al final: si la migración se corta, la siguiente ejecución la repite
+        for (String columna : COLUMNAS_LEGADAS) {
+            if (existeColumna(columna)) {
+                jdbcTemplate.execute("ALTER TABLE libros DROP COLUMN " + columna);
+            }
+        }
+        log.info("Libros migrados: {}", migrados);
+    }
+
+    private void migrarLote(List<FilaLegada> filas) {
+        List<Autor> recibidos = new ArrayList<>();
+        for (FilaLegada fila : filas) {
+            if (fila.autor() != null && !fila.autor().isBlank() && !fila.autor().equals(LibroService.AUTOR_DESCONOCIDO)) {
+                recibidos.add(new Autor(fila.autor(), convertirEntero(fila.fechaNacimiento()),
+                    convertirEntero(fila.fechaFallecimiento())));
+            }
+        }
+        Map<String, Autor> registrados = ingestaLibrosService.registrarAutores(recibidos);
+
+        Map<Long, FilaLegada> porId = filas.stream().collect(Collectors.toMap(FilaLegada::id, Function.identity()));
+        for (Libro libro : libroRepository.findAllById(porId.keySet())) {
+            FilaLegada fila = porId.get(libro.getId());
+            List<Autor> autores = new ArrayList<>();
+            if (registrados.containsKey(fila.autor())) {
+                autores.add(registrados.get(fila.autor()));
+            }
+            libro.setAutores(autores);
+            if (libro.getNumeroDescargas() == null) {
+                libro.setNumeroDescargas(convertirEntero(fila.numeroDescargas()));
+            }
+        }
+    }
+
+    /**
+     * El esquema anterior guardaba textos como "Fecha de nacimiento no disponible" en lugar de null
+     */
+    private static Integer convertirEntero(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(valor.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean existeColumna(String columna) {
+        Integer cantidad = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.columns"
+                + " WHERE table_schema = CURRENT_SCHEMA AND LOWER(table_name) = 'libros' AND LOWER(column_name) = ?",
+            Integer.class, columna);
+        return cantidad != null && cantidad > 0;
+    }
+
+    private record FilaLegada(long id, String autor, String fechaNacimiento, String fechaFallecimiento,
+                              String numeroDescargas) {
+    }
+}
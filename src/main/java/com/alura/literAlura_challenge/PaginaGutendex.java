@@ -0,0 +1,12 @@
+package com.alura.literAlura_challenge;
+
+import java.util.List;
+
+/**
+ * Una página de resultados de la API de Gutenberg
+ * @param total Cantidad total de libros de la consulta (campo count), o null si no vino
+ * @param siguiente URL de la página siguiente, o null si es la última
+ * @param libros Libros de la página; vacía si la respuesta no traía resultados
+ */
+public record PaginaGutendex(Integer total, String siguiente, List<LibroGutendex> libros) {
+}
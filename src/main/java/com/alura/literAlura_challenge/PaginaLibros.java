@@ -0,0 +1,41 @@
+package com.alura.literAlura_challenge;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Página del catálogo local paginada por clave. El cursor es opaco para el cliente:
+ * codifica el id del último libro entregado y la página siguiente empieza después de él
+ */
+public record PaginaLibros(
+    List<LibroDTO> libros,
+    String siguienteCursor
+    ) {
+    private static final String PREFIJO = "id:";
+
+    static String cursorDespuesDe(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((PREFIJO + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor Cursor recibido del cliente; null o vacío para la primera página
+     * @return Id a partir del cual continuar (excluido)
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    static long idDesdeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO)) {
+                throw new IllegalArgumentException("Cursor no válido");
+            }
+            return Long.parseLong(valor.substring(PREFIJO.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor no válido", e);
+        }
+    }
+}
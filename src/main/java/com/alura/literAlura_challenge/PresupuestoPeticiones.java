@@ -0,0 +1,41 @@
+package com.alura.literAlura_challenge;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Cubeta de fichas que limita las peticiones por minuto a un servicio remoto. Se recarga de forma
+ * continua y admite ráfagas de hasta un minuto de presupuesto acumulado.
+ */
+class PresupuestoPeticiones {
+
+    private static final double NANOS_POR_MINUTO = 60_000_000_000d;
+
+    private final double capacidad;
+    private final double fichasPorNano;
+    private final LongSupplier reloj;
+
+    private double fichas;
+    private long ultimaRecarga;
+
+    PresupuestoPeticiones(int peticionesPorMinuto, LongSupplier reloj) {
+        this.capacidad = Math.max(1, peticionesPorMinuto);
+        this.fichasPorNano = capacidad / NANOS_POR_MINUTO;
+        this.reloj = reloj;
+        this.fichas = capacidad;
+        this.ultimaRecarga = reloj.getAsLong();
+    }
+
+    /**
+     * @return true si quedaba presupuesto para una petición (y se descontó)
+     */
+    synchronized boolean intentarConsumir() {
+        long ahora = reloj.getAsLong();
+        fichas = Math.min(capacidad, fichas + (ahora - ultimaRecarga) * fichasPorNano);
+        ultimaRecarga = ahora;
+        if (fichas < 1) {
+            return false;
+        }
+        fichas--;
+        return true;
+    }
+}
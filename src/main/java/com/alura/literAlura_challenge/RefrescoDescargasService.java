@@ -0,0 +1,148 @@
+package com.alura.literAlura_challenge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Vuelve a consultar en la API las descargas de los libros ya guardados, de los datos más viejos
+ * a los más nuevos, sin pasar de un presupuesto de peticiones por minuto. Cada petición trae un lote
+ * de libros por id; solo se escriben los que cambiaron. El recorrido avanza con un cursor en memoria,
+ * así los libros sin cambios no se tocan en la BD; al reiniciar la aplicación empieza otra vuelta.
+ */
+@Service
+@ConditionalOnProperty(name = "literalura.refresco.habilitado", havingValue = "true")
+// Nadie lo inyecta: con inicialización diferida (perfil consola) no se crearía y no se programaría el refresco
+@Lazy(false)
+public class RefrescoDescargasService {
+    private static final Logger log = LoggerFactory.getLogger(RefrescoDescargasService.class);
+
+    // Máximo de libros por página en Gutendex
+    static final int LIBROS_POR_PETICION = 32;
+    private static final LocalDateTime ANTES_DE_TODO = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private LibroRepository libroRepository;
+
+    @Autowired
+    private GutendexClient gutendexClient;
+
+    @Autowired
+    private IngestaLibrosService ingestaLibrosService;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    @Value("${literalura.refresco.peticiones-por-minuto:10}")
+    private int peticionesPorMinuto;
+
+    private PresupuestoPeticiones presupuesto;
+    private Counter librosRevisados;
+    private Counter librosActualizados;
+
+    // Posición de la vuelta en curso; null si hay que empezar una nueva
+    private LocalDateTime inicioVuelta;
+    private LocalDateTime ultimaFecha;
+    private long ultimoId;
+
+    @PostConstruct
+    void iniciar() {
+        presupuesto = new PresupuestoPeticiones(peticionesPorMinuto, System::nanoTime);
+        librosRevisados = contadorLibros("revisado");
+        librosActualizados = contadorLibros("actualizado");
+    }
+
+    private Counter contadorLibros(String resultado) {
+        return Counter.builder("literalura.refresco.libros")
+            .description("Libros consultados de nuevo en la API, y cuántos tenían descargas distintas")
+            .tag("resultado", resultado)
+            .register(registro);
+    }
+
+    @Scheduled(fixedDelayString = "${literalura.refresco.intervalo:1m}",
+        initialDelayString = "${literalura.refresco.espera-inicial:1m}")
+    public void refrescarProgramado() {
+        ResultadoRefresco resultado = refrescar();
+        if (resultado.peticiones() > 0) {
+            log.info("Refresco de descargas: {} peticiones, {} libros revisados, {} actualizados",
+                resultado.peticiones(), resultado.revisados(), resultado.actualizados());
+        }
+    }
+
+    /**
+     * Refresca lotes de libros mientras quede presupuesto. Si la API falla, el lote se reintenta
+     * en la próxima ejecución
+     * @return Resumen de las peticiones hechas y los libros revisados y actualizados
+     */
+    public synchronized ResultadoRefresco refrescar() {
+        int peticiones = 0;
+        int revisados = 0;
+        int actualizados = 0;
+        while (true) {
+            if (inicioVuelta == null) {
+                inicioVuelta = LocalDateTime.now();
+                ultimaFecha = ANTES_DE_TODO;
+                ultimoId = 0;
+            }
+            List<LibroParaRefrescar> lote = libroRepository.listarParaRefrescar(inicioVuelta, ultimaFecha, ultimoId,
+                Limit.of(LIBROS_POR_PETICION));
+            if (lote.isEmpty()) {
+                // Vuelta terminada: la siguiente empieza en la próxima ejecución
+                inicioVuelta = null;
+                break;
+            }
+            if (!presupuesto.intentarConsumir()) {
+                break;
+            }
+            PaginaGutendex respuesta;
+            try {
+                respuesta = gutendexClient.obtenerPorIds(lote.stream().map(LibroParaRefrescar::gutenbergId).toList()).join();
+            } catch (CompletionException e) {
+                log.warn("No se pudieron refrescar las descargas: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                break;
+            }
+            peticiones++;
+
+            Map<Integer, Integer> recibidas = new HashMap<>();
+            for (LibroGutendex libro : respuesta.libros()) {
+                if (libro.gutenbergId() != null) {
+                    recibidas.put(libro.gutenbergId(), libro.numeroDescargas());
+                }
+            }
+            Map<Long, Integer> cambiadas = new LinkedHashMap<>();
+            for (LibroParaRefrescar libro : lote) {
+                Integer nuevas = recibidas.get(libro.gutenbergId());
+                if (nuevas != null && !nuevas.equals(libro.numeroDescargas())) {
+                    cambiadas.put(libro.id(), nuevas);
+                }
+            }
+            actualizados += ingestaLibrosService.actualizarDescargas(cambiadas);
+            revisados += lote.size();
+
+            LibroParaRefrescar ultimo = lote.get(lote.size() - 1);
+            ultimaFecha = ultimo.actualizadoEn();
+            ultimoId = ultimo.id();
+        }
+        librosRevisados.increment(revisados);
+        librosActualizados.increment(actualizados);
+        return new ResultadoRefresco(peticiones, revisados, actualizados);
+    }
+
+    public record ResultadoRefresco(int peticiones, int revisados, int actualizados) {
+    }
+}
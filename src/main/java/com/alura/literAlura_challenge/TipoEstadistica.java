@@ -0,0 +1,12 @@
+package com.alura.literAlura_challenge;
+
+public enum TipoEstadistica {
+    LIBROS,
+    DESCARGAS,
+    LIBROS_POR_IDIOMA,
+    DESCARGAS_POR_AUTOR,
+    AUTORES_POR_DECADA_NACIMIENTO,
+    AUTORES_POR_DECADA_FALLECIMIENTO,
+    // Avanza con cada cambio del catálogo; da el ETag de las respuestas (ver VersionCatalogo)
+    VERSION_CATALOGO
+}
@@ -0,0 +1,7 @@
+package com.alura.literAlura_challenge;
+
+public record TituloDeAutor(
+    Long autorId,
+    String titulo
+    ) {
+}
@@ -0,0 +1,49 @@
+package com.alura.literAlura_challenge;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ETag;
+import org.springframework.stereotype.Component;
+
+/**
+ * Versión del catálogo local: un contador de {@link EstadisticasService} que avanza en la misma transacción
+ * que guarda libros nuevos, actualiza descargas o recalcula las estadísticas. Como está en la BD, sobrevive a
+ * los reinicios y todas las instancias entregan el mismo ETag para los mismos datos.
+ * Las respuestas que solo dependen del catálogo local llevan un ETag fuerte con esta versión; un cliente que
+ * la devuelve en If-None-Match recibe 304 con una sola lectura por clave, sin consultar los libros
+ */
+@Component
+public class VersionCatalogo {
+
+    static final String ID = EstadisticaCatalogo.generarId(TipoEstadistica.VERSION_CATALOGO, "");
+
+    @Autowired
+    private EstadisticaCatalogoRepository estadisticaRepository;
+
+    public long version() {
+        return estadisticaRepository.findById(ID).map(EstadisticaCatalogo::getValor).orElse(0L);
+    }
+
+    /**
+     * ETag de la versión actual. La representación comprimida lleva otro ETag, como corresponde a uno fuerte.
+     * Se obtiene antes de leer la BD: si la ingesta confirma entre medio, el ETag queda más viejo que los datos
+     * (el próximo pedido los vuelve a enviar) y nunca al revés
+     * @param comprimida true si el cuerpo se envía con Content-Encoding: gzip
+     */
+    public String etag(boolean comprimida) {
+        return "\"" + version() + (comprimida ? "-gzip" : "") + "\"";
+    }
+
+    /**
+     * @param ifNoneMatch Valor de la cabecera If-None-Match, o null
+     * @param etag ETag actual
+     * @return true si el cliente ya tiene esta versión (comparación débil, como indica HTTP para If-None-Match)
+     */
+    public static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        ETag actual = ETag.parse(etag).get(0);
+        return ETag.parse(ifNoneMatch).stream()
+            .anyMatch(recibido -> recibido.isWildcard() || recibido.compare(actual, false));
+    }
+}
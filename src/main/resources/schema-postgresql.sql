@@ -0,0 +1,17 @@
+-- Migraciones idempotentes para PostgreSQL, se ejecutan en cada arranque
+
+-- Los libros creados con la antigua columna IDENTITY ya ocupan ids: adelantar la secuencia para no repetirlos
+SELECT setval('libros_seq', (SELECT MAX(id) FROM libros) + 50)
+WHERE (SELECT MAX(id) FROM libros) + 50 > (SELECT last_value FROM libros_seq);
+
+-- ddl-auto=update no agranda columnas existentes (Libro.LARGO_TITULO, Autor.LARGO_NOMBRE); ampliar un varchar no reescribe la tabla
+ALTER TABLE libros ALTER COLUMN titulo TYPE VARCHAR(2000);
+ALTER TABLE autores ALTER COLUMN nombre TYPE VARCHAR(500);
+
+-- Índices de trigramas para que las búsquedas LIKE '%término%' sobre título y autor usen índice
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_libros_titulo_trgm ON libros USING gin (LOWER(titulo) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_autores_nombre_trgm ON autores USING gin (LOWER(nombre) gin_trgm_ops);
+
+-- El índice del id de Gutenberg pasó a ser único (uk_libros_gutenberg_id, lo crea Hibernate)
+DROP INDEX IF EXISTS idx_libros_gutenberg_id;
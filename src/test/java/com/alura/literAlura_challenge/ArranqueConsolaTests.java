@@ -0,0 +1,44 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+/**
+ * Arranca el perfil consola como lo hace main (inicialización diferida, Hibernate en segundo plano), pero sin
+ * mostrar el menú, sobre una BD propia con la tabla del esquema anterior
+ */
+class ArranqueConsolaTests {
+
+	private static final String URL = "jdbc:h2:mem:consola;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+			+ "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+	@Test
+	void laMigracionYElScriptDeEsquemaCorrenAlArrancar() throws Exception {
+		try (Connection conexion = DriverManager.getConnection(URL, "sa", "");
+				Statement sentencia = conexion.createStatement()) {
+			sentencia.execute("CREATE TABLE libros (id BIGINT PRIMARY KEY, titulo VARCHAR(255), idioma VARCHAR(255),"
+					+ " autor VARCHAR(255), fecha_nacimiento VARCHAR(255), fecha_fallecimiento VARCHAR(255),"
+					+ " numero_descargas VARCHAR(255))");
+			sentencia.execute("INSERT INTO libros VALUES (1, 'Emma', 'en', 'Austen, Jane', '1775', '1817', '1200')");
+		}
+
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LiterAluraChallengeApplication.class)
+				.run("--spring.profiles.active=" + LiterAluraChallengeApplication.PERFIL_CONSOLA,
+						"--spring.datasource.url=" + URL,
+						// schema-consola-prueba.sql deja una marca al correr, después de que Hibernate creó las tablas
+						"--spring.sql.init.platform=consola-prueba")) {
+			JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+			assertThat(jdbcTemplate.queryForList("SELECT nombre FROM autores", String.class)).containsExactly("Austen, Jane");
+			assertThat(jdbcTemplate.queryForObject("SELECT descargas FROM libros WHERE id = 1", Integer.class)).isEqualTo(1200);
+			assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM esquema_inicializado", Integer.class)).isEqualTo(1);
+		}
+	}
+}
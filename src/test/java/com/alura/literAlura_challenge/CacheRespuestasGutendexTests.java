@@ -0,0 +1,111 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+class CacheRespuestasGutendexTests {
+
+	private final AtomicLong reloj = new AtomicLong();
+	private final AtomicInteger llamadas = new AtomicInteger();
+	private final Function<String, List<LibroDTO>> cargador = termino -> {
+		llamadas.incrementAndGet();
+		return List.of(new LibroDTO(termino, "Autor", null, null, 0, "en", List.of("Autor")));
+	};
+
+	@Test
+	void lasVariantesDeMayusculasYEspaciosCompartenEntrada() {
+		CacheRespuestasGutendex cache = new CacheRespuestasGutendex(10, Duration.ofMinutes(1), reloj::get);
+
+		cache.obtener("Jane  Austen", cargador);
+		List<LibroDTO> libros = cache.obtener("  jane austen ", cargador);
+
+		assertThat(libros).extracting(LibroDTO::titulo).containsExactly("jane austen");
+		assertThat(llamadas.get()).isEqualTo(1);
+		assertThat(cache.estadisticas().aciertos()).isEqualTo(1);
+		assertThat(cache.estadisticas().fallos()).isEqualTo(1);
+	}
+
+	@Test
+	void desalojaLaEntradaMenosUsadaAlSuperarElTamano() {
+		CacheRespuestasGutendex cache = new CacheRespuestasGutendex(2, Duration.ofMinutes(1), reloj::get);
+
+		cache.obtener("a", cargador);
+		cache.obtener("b", cargador);
+		cache.obtener("a", cargador);
+		cache.obtener("c", cargador);
+		cache.obtener("a", cargador);
+		cache.obtener("b", cargador);
+
+		assertThat(llamadas.get()).isEqualTo(4);
+		assertThat(cache.estadisticas().desalojos()).isEqualTo(2);
+		assertThat(cache.tamano()).isEqualTo(2);
+	}
+
+	@Test
+	void lasEntradasVencenTrasElTtl() {
+		CacheRespuestasGutendex cache = new CacheRespuestasGutendex(10, Duration.ofSeconds(5), reloj::get);
+
+		cache.obtener("emma", cargador);
+		reloj.addAndGet(Duration.ofSeconds(6).toNanos());
+		cache.obtener("emma", cargador);
+
+		assertThat(llamadas.get()).isEqualTo(2);
+		assertThat(cache.estadisticas().expiraciones()).isEqualTo(1);
+	}
+
+	@Test
+	void losErroresNoSeGuardan() {
+		CacheRespuestasGutendex cache = new CacheRespuestasGutendex(10, Duration.ofMinutes(1), reloj::get);
+
+		assertThatThrownBy(() -> cache.obtener("emma", termino -> {
+			throw new IllegalStateException("sin red");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(cache.obtener("emma", cargador)).hasSize(1);
+		assertThat(llamadas.get()).isEqualTo(1);
+	}
+
+	@Test
+	void lasBusquedasSimultaneasCompartenUnaSolaCarga() throws Exception {
+		CacheRespuestasGutendex cache = new CacheRespuestasGutendex(10, Duration.ofMinutes(1), reloj::get);
+		CountDownLatch liberar = new CountDownLatch(1);
+		Function<String, List<LibroDTO>> lento = termino -> {
+			try {
+				liberar.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return cargador.apply(termino);
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<List<LibroDTO>>> futuros = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futuros.add(executor.submit(() -> cache.obtener("dracula", lento)));
+			}
+			Thread.sleep(200);
+			liberar.countDown();
+			for (Future<List<LibroDTO>> futuro : futuros) {
+				assertThat(futuro.get(5, TimeUnit.SECONDS)).hasSize(1);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(llamadas.get()).isEqualTo(1);
+	}
+}
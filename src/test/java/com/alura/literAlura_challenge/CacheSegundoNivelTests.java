@@ -0,0 +1,136 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+class CacheSegundoNivelTests {
+
+	@Autowired
+	private LibroService libroService;
+
+	@Autowired
+	private IngestaLibrosService ingestaLibrosService;
+
+	@Autowired
+	private LibroRepository libroRepository;
+
+	@Autowired
+	private AutorRepository autorRepository;
+
+	@Autowired
+	private CacheSegundoNivel cacheSegundoNivel;
+
+	@Autowired
+	private MeterRegistry registro;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void preparar() {
+		libroRepository.deleteAllInBatch();
+		autorRepository.deleteAllInBatch();
+		ingestaLibrosService.guardarNuevos(List.of(libro(1, "Emma", "Austen, Jane"),
+				libro(2, "Persuasion", "Austen, Jane"), libro(3, "Dracula", "Stoker, Bram")));
+	}
+
+	@Test
+	void laLecturaRepetidaNoConsultaLaBD() {
+		Statistics estadisticas = cacheSegundoNivel.estadisticas();
+		PaginaLibros primera = libroService.obtenerPaginaCatalogo(null, 10);
+		List<Libro> encontrados = libroRepository.buscarClasificados("austen", 0, 10);
+
+		long sentencias = estadisticas.getPrepareStatementCount();
+		long aciertos = estadisticas.getQueryCacheHitCount();
+		PaginaLibros repetida = libroService.obtenerPaginaCatalogo(null, 10);
+		List<Libro> repetidos = libroRepository.buscarClasificados("austen", 0, 10);
+
+		assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(sentencias);
+		assertThat(estadisticas.getQueryCacheHitCount()).isEqualTo(aciertos + 2);
+		assertThat(repetida).isEqualTo(primera);
+		assertThat(repetidos).extracting(Libro::getTitulo)
+				.containsExactlyElementsOf(encontrados.stream().map(Libro::getTitulo).toList());
+		assertThat(registro.get("literalura.cache.bd.tasa.aciertos").tag("cache", "consultas").gauge().value())
+				.isGreaterThan(0);
+	}
+
+	@Test
+	void laIngestaInvalidaLasConsultasGuardadas() {
+		assertThat(libroService.obtenerPaginaCatalogo(null, 10).libros()).hasSize(3);
+		assertThat(libroRepository.buscarClasificados("austen", 0, 10)).hasSize(2);
+
+		ingestaLibrosService.guardarNuevos(List.of(libro(4, "Sense and Sensibility", "Austen, Jane")));
+
+		assertThat(libroService.obtenerPaginaCatalogo(null, 10).libros()).extracting(LibroDTO::titulo)
+				.containsExactly("Emma", "Persuasion", "Dracula", "Sense and Sensibility");
+		assertThat(libroRepository.buscarClasificados("austen", 0, 10)).extracting(Libro::getTitulo)
+				.containsExactlyInAnyOrder("Emma", "Persuasion", "Sense and Sensibility");
+	}
+
+	@Test
+	void lasDescargasActualizadasSeVenEnLasLecturasSiguientes() {
+		assertThat(libroService.obtenerPaginaCatalogo(null, 10).libros()).extracting(LibroDTO::numeroDescargas)
+				.containsOnly(0);
+		Long dracula = libroRepository.findByTituloContainingIgnoreCase("Dracula").get(0).getId();
+
+		ingestaLibrosService.actualizarDescargas(Map.of(dracula, 999));
+
+		assertThat(libroService.obtenerPaginaCatalogo(null, 10).libros()).extracting(LibroDTO::numeroDescargas)
+				.containsExactly(0, 0, 999);
+		assertThat(libroRepository.findById(dracula).orElseThrow().getNumeroDescargas()).isEqualTo(999);
+	}
+
+	@Test
+	void renovarUnLibroRecibidoOtraVezNoDescartaLosDemas() {
+		libroService.obtenerPaginaCatalogo(null, 10);
+		Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+		Libro emma = libroRepository.findByTituloContainingIgnoreCase("Emma").get(0);
+		List<Long> otros = libroRepository.findByTituloContainingIgnoreCase("a").stream()
+				.map(Libro::getId).filter(id -> !id.equals(emma.getId())).toList();
+
+		ingestaLibrosService.guardarNuevos(List.of(libro(1, "Emma", "Austen, Jane")));
+
+		assertThat(otros).hasSize(2).allSatisfy(id -> assertThat(cache.containsEntity(Libro.class, id)).isTrue());
+		assertThat(libroRepository.findById(emma.getId()).orElseThrow().getActualizadoEn()).isAfter(emma.getActualizadoEn());
+	}
+
+	@Test
+	void limpiarDescartaLoGuardadoAntesDeUnCambioPorFueraDeHibernate() {
+		libroService.obtenerPaginaCatalogo(null, 10);
+		jdbcTemplate.update("UPDATE libros SET descargas = 5");
+		assertThat(libroService.obtenerPaginaCatalogo(null, 10).libros()).extracting(LibroDTO::numeroDescargas)
+				.containsOnly(0);
+
+		cacheSegundoNivel.limpiar();
+
+		assertThat(libroService.obtenerPaginaCatalogo(null, 10).libros()).extracting(LibroDTO::numeroDescargas)
+				.containsOnly(5);
+	}
+
+	private Libro libro(int gutenbergId, String titulo, String autor) {
+		Libro libro = new Libro();
+		libro.setGutenbergId(gutenbergId);
+		libro.setTitulo(titulo);
+		libro.setAutores(new ArrayList<>(List.of(new Autor(autor, null, null))));
+		libro.setNumeroDescargas(0);
+		libro.setIdioma("en");
+		return libro;
+	}
+}
@@ -0,0 +1,121 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = "literalura.catalogo-memoria.habilitado=true")
+class CatalogoEnMemoriaTests {
+
+	private static final GutendexStub stub = new GutendexStub(1, 4);
+
+	static {
+		// JOL no puede pedir a Unsafe los offsets de los campos de un record (LibroDTO)
+		System.setProperty("jol.magicFieldOffset", "true");
+	}
+
+	@DynamicPropertySource
+	static void apiLocal(DynamicPropertyRegistry registro) {
+		registro.add("gutenberg.api.url", stub::url);
+	}
+
+	@Autowired
+	private LibroService libroService;
+
+	@Autowired
+	private CatalogoEnMemoria catalogoEnMemoria;
+
+	@AfterAll
+	static void detenerStub() {
+		stub.close();
+	}
+
+	@Test
+	void seActualizaConLosLibrosQueGuardaLaIngesta() {
+		int antes = catalogoEnMemoria.cantidadLibros();
+
+		libroService.buscarLibros("sintetico");
+
+		assertThat(catalogoEnMemoria.estaCargado()).isTrue();
+		assertThat(catalogoEnMemoria.cantidadLibros()).isEqualTo(antes + 4);
+		List<String> titulos = new ArrayList<>();
+		libroService.recorrerLibrosPorIdioma("EN", libro -> titulos.add(libro.titulo()));
+		assertThat(titulos).contains("Libro sintetico 1", "Libro sintetico 4");
+	}
+
+	@Test
+	void respondeLosListadosDesdeLasColumnas() {
+		CatalogoEnMemoria catalogo = new CatalogoEnMemoria();
+		Autor cervantes = autor(1L, "Cervantes, Miguel de", 1547, null);
+		Autor austen = autor(2L, "Austen, Jane", 1775, 1817);
+		// Llegan fuera de orden y uno repetido: deben quedar ordenados por id y sin duplicar
+		catalogo.agregar(List.of(libro(30L, "Persuasion", "en", austen), libro(10L, "Don Quijote", "es", cervantes)));
+		catalogo.agregar(List.of(libro(20L, "Emma", "en", austen, cervantes), libro(10L, "Don Quijote", "es", cervantes)));
+		// Un autor ya conocido completa sus años
+		catalogo.agregar(List.of(libro(40L, "Novelas ejemplares", "es", autor(1L, "Cervantes, Miguel de", 1547, 1616))));
+
+		assertThat(catalogo.todos()).extracting(LibroDTO::titulo)
+				.containsExactly("Don Quijote", "Emma", "Persuasion", "Novelas ejemplares");
+		assertThat(catalogo.todos().get(1).autores()).containsExactly("Austen, Jane", "Cervantes, Miguel de");
+		assertThat(catalogo.nombresDeAutores()).containsExactly("Austen, Jane", "Cervantes, Miguel de");
+		assertThat(catalogo.librosPorIdioma("es")).extracting(LibroResumenDTO::titulo)
+				.containsExactly("Don Quijote", "Novelas ejemplares");
+		assertThat(catalogo.librosPorIdioma("fr")).isEmpty();
+		assertThat(catalogo.autoresVivosEn(1600)).singleElement().satisfies(autor -> {
+			assertThat(autor.nombre()).isEqualTo("Cervantes, Miguel de");
+			assertThat(autor.titulos()).containsExactly("Don Quijote", "Emma", "Novelas ejemplares");
+		});
+
+		PaginaLibros primera = catalogo.pagina(0, 2);
+		assertThat(primera.libros()).extracting(LibroDTO::titulo).containsExactly("Don Quijote", "Emma");
+		PaginaLibros segunda = catalogo.pagina(PaginaLibros.idDesdeCursor(primera.siguienteCursor()), 2);
+		assertThat(segunda.libros()).extracting(LibroDTO::titulo).containsExactly("Persuasion", "Novelas ejemplares");
+		assertThat(catalogo.pagina(40L, 2).siguienteCursor()).isNull();
+	}
+
+	@Test
+	void ocupaMenosMemoriaQueUnaListaDeDTOs() {
+		List<Libro> libros = new ArrayList<>();
+		List<Autor> autores = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			autores.add(autor((long) i, "Autor sintetico " + i, 1700 + i % 200, 1760 + i % 200));
+		}
+		for (int i = 0; i < 50_000; i++) {
+			libros.add(libro((long) i + 1, "Libro sintetico " + i, i % 10 == 0 ? "fr" : "en", autores.get(i % autores.size())));
+		}
+		CatalogoEnMemoria catalogo = new CatalogoEnMemoria();
+		catalogo.agregar(libros);
+		List<LibroDTO> dtos = libros.stream().map(LibroDTO::new).toList();
+
+		long bytesCatalogo = GraphLayout.parseInstance(catalogo).totalSize();
+		long bytesDtos = GraphLayout.parseInstance(dtos).totalSize();
+
+		// Unos 65 bytes por libro frente a unos 175 de la lista de DTOs
+		assertThat(bytesCatalogo / libros.size()).isLessThan(80);
+		assertThat(bytesCatalogo).isLessThan(bytesDtos / 2);
+	}
+
+	private static Autor autor(Long id, String nombre, Integer nacimiento, Integer fallecimiento) {
+		Autor autor = new Autor(nombre, nacimiento, fallecimiento);
+		autor.setId(id);
+		return autor;
+	}
+
+	private static Libro libro(Long id, String titulo, String idioma, Autor... autores) {
+		Libro libro = new Libro();
+		libro.setId(id);
+		libro.setTitulo(titulo);
+		libro.setIdioma(idioma);
+		libro.setNumeroDescargas(id.intValue() * 10);
+		libro.setAutores(new ArrayList<>(List.of(autores)));
+		return libro;
+	}
+}
@@ -0,0 +1,67 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Map;
+
+class ConsultaLibrosTests {
+
+	@Test
+	void separaLasPalabrasDeLosFiltros() {
+		ConsultaLibros consulta = ConsultaLibros.interpretar("Pride author:Austen lang:EN downloads>1000 alive:1800");
+
+		assertThat(consulta).isEqualTo(new ConsultaLibros(List.of("pride"), "austen", "en", 1000, 1800));
+	}
+
+	@Test
+	void aceptaValoresEntreComillasYCamposEnEspanol() {
+		ConsultaLibros consulta = ConsultaLibros.interpretar("\"pride and\" autor:\"Austen,  Jane\" descargas>=10 vivo:-400");
+
+		assertThat(consulta).isEqualTo(new ConsultaLibros(List.of("pride and"), "austen, jane", null, 9, -400));
+	}
+
+	@Test
+	void unCampoDesconocidoEsUnaPalabra() {
+		assertThat(ConsultaLibros.interpretar("tomo:1 prejudice:").palabras()).containsExactly("tomo:1", "prejudice:");
+	}
+
+	@Test
+	void rechazaFiltrosSinValorOConValoresInvalidos() {
+		assertThatThrownBy(() -> ConsultaLibros.interpretar("emma author: austen"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> ConsultaLibros.interpretar("downloads>muchas"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> ConsultaLibros.interpretar("lang:english"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void enviaALaAPISoloLosFiltrosQueResuelve() {
+		ConsultaLibros consulta = ConsultaLibros.interpretar("emma author:\"austen, jane\" lang:en downloads>10 alive:1800");
+
+		assertThat(consulta.parametrosGutendex()).containsExactly(
+				entrada("search", "emma austen jane"), entrada("languages", "en"),
+				entrada("author_year_start", "1800"), entrada("author_year_end", "1800"));
+		assertThat(consulta.cumple(libro("Austen, Jane", 11))).isTrue();
+		assertThat(consulta.cumple(libro("Austen, Jane", 10))).isFalse();
+		assertThat(consulta.cumple(libro("Emma Watson", 500))).isFalse();
+	}
+
+	@Test
+	void lasVariantesDeUnaConsultaTienenElMismoTexto() {
+		assertThat(ConsultaLibros.interpretar("lang:en  Emma downloads>=11").comoTexto())
+				.isEqualTo(ConsultaLibros.interpretar("emma downloads>10 idioma:EN").comoTexto())
+				.isEqualTo("emma lang:en downloads>10");
+	}
+
+	private static Map.Entry<String, String> entrada(String clave, String valor) {
+		return Map.entry(clave, valor);
+	}
+
+	private static LibroDTO libro(String autor, int descargas) {
+		return new LibroDTO("Emma", autor, null, null, descargas, "en", List.of(autor));
+	}
+}
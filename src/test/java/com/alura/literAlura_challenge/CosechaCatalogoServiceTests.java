@@ -0,0 +1,95 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.util.Collections;
+import java.util.List;
+
+@SpringBootTest(properties = "literalura.cosecha.concurrencia=4")
+class CosechaCatalogoServiceTests {
+
+	private static final GutendexStub stub = new GutendexStub(2000, 4);
+
+	@DynamicPropertySource
+	static void apiLocal(DynamicPropertyRegistry registro) {
+		registro.add("gutenberg.api.url", stub::url);
+	}
+
+	@Autowired
+	private CosechaCatalogoService cosechaCatalogoService;
+
+	@Autowired
+	private LibroRepository libroRepository;
+
+	@Autowired
+	private CheckpointCosechaRepository checkpointRepository;
+
+	@BeforeEach
+	void limpiar() {
+		libroRepository.deleteAllInBatch();
+		checkpointRepository.deleteAll();
+		stub.reiniciarContadores();
+	}
+
+	@AfterAll
+	static void detenerStub() {
+		stub.close();
+	}
+
+	@Test
+	void cosechaTodasLasPaginasConConcurrenciaAcotada() {
+		CosechaCatalogoService.ResultadoCosecha resultado = cosechaCatalogoService.cosecharCatalogo();
+
+		assertThat(resultado.completa()).isTrue();
+		assertThat(resultado.paginasProcesadas()).isEqualTo(2000);
+		assertThat(libroRepository.count()).isEqualTo(8000);
+		assertThat(stub.maximoEnCurso.get()).isLessThanOrEqualTo(4);
+
+		CheckpointCosecha checkpoint = checkpointRepository.findById(CosechaCatalogoService.NOMBRE_CHECKPOINT).orElseThrow();
+		assertThat(checkpoint.getUltimaPaginaCompleta()).isEqualTo(2000);
+		assertThat(checkpoint.getUltimoGutenbergId()).isEqualTo(8000);
+		assertThat(checkpoint.isCompleta()).isTrue();
+		assertThat(stub.consultas).allMatch(consulta -> consulta.startsWith("sort=ascending"));
+	}
+
+	@Test
+	void reanudaDesdeLaUltimaPaginaGuardada() {
+		CheckpointCosecha checkpoint = new CheckpointCosecha();
+		checkpoint.setNombre(CosechaCatalogoService.NOMBRE_CHECKPOINT);
+		checkpoint.setUltimaPaginaCompleta(1500);
+		checkpointRepository.save(checkpoint);
+
+		CosechaCatalogoService.ResultadoCosecha resultado = cosechaCatalogoService.cosecharCatalogo();
+
+		assertThat(resultado.completa()).isTrue();
+		assertThat(resultado.paginasProcesadas()).isEqualTo(500);
+		assertThat(Collections.min(stub.paginasSolicitadas)).isEqualTo(1501);
+		assertThat(libroRepository.count()).isEqualTo(2000);
+	}
+
+	@Test
+	void reanudaDesdeElUltimoIdGuardadoAunqueLasPaginasSeHayanCorrido() {
+		// Ids hasta 5990 guardados: si se borraron libros, la página 1500 (ids 5997 a 6000) ya no sigue a ese id
+		CheckpointCosecha checkpoint = new CheckpointCosecha();
+		checkpoint.setNombre(CosechaCatalogoService.NOMBRE_CHECKPOINT);
+		checkpoint.setUltimaPaginaCompleta(1500);
+		checkpoint.setUltimoGutenbergId(5990);
+		checkpointRepository.save(checkpoint);
+
+		CosechaCatalogoService.ResultadoCosecha resultado = cosechaCatalogoService.cosecharCatalogo();
+
+		assertThat(resultado.completa()).isTrue();
+		assertThat(Collections.min(stub.paginasSolicitadas)).isEqualTo(1498);
+		assertThat(libroRepository.findGutenbergIdsExistentes(List.of(5990, 5991, 5996, 5997, 8000)))
+				.containsExactlyInAnyOrder(5990, 5991, 5996, 5997, 8000);
+		assertThat(checkpointRepository.findById(CosechaCatalogoService.NOMBRE_CHECKPOINT).orElseThrow()
+				.getUltimoGutenbergId()).isEqualTo(8000);
+	}
+}
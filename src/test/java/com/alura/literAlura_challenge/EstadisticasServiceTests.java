@@ -0,0 +1,62 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@DataJpaTest
+@Import({IngestaLibrosService.class, EstadisticasService.class, CacheSegundoNivel.class, SimpleMeterRegistry.class})
+class EstadisticasServiceTests {
+
+	@Autowired
+	private IngestaLibrosService ingestaLibrosService;
+
+	@Autowired
+	private EstadisticasService estadisticasService;
+
+	@Test
+	void laIngestaMantieneLosContadoresIgualQueUnRecalculoCompleto() {
+		ingestaLibrosService.guardarNuevos(List.of(
+				libro("Emma", "en", 500, new Autor("Austen, Jane", null, null)),
+				libro("Don Quijote", "es", 900, new Autor("Cervantes, Miguel de", 1547, 1616))));
+		ingestaLibrosService.guardarNuevos(List.of(
+				libro("Emma", "en", 500, new Autor("Austen, Jane", null, null)),
+				libro("Persuasion", "en", 300, new Autor("Austen, Jane", 1775, 1817)),
+				libro("Novelas ejemplares", "es", 50, new Autor("Cervantes, Miguel de", 1547, 1616),
+						new Autor("Anónimo", -45, null))));
+
+		EstadisticasService.ResumenEstadisticas incremental = estadisticasService.obtenerResumen(10);
+
+		assertThat(incremental.totalLibros()).isEqualTo(4);
+		assertThat(incremental.totalDescargas()).isEqualTo(1750);
+		assertThat(incremental.librosPorIdioma()).containsExactly(Map.entry("en", 2L), Map.entry("es", 2L));
+		assertThat(incremental.autoresMasDescargados()).containsExactly(
+				new EstadisticasService.DescargasAutor("Cervantes, Miguel de", 950),
+				new EstadisticasService.DescargasAutor("Austen, Jane", 800),
+				new EstadisticasService.DescargasAutor("Anónimo", 50));
+		assertThat(incremental.autoresPorDecadaNacimiento())
+				.containsExactly(Map.entry(-50, 1L), Map.entry(1540, 1L), Map.entry(1770, 1L));
+		assertThat(incremental.autoresPorDecadaFallecimiento())
+				.containsExactly(Map.entry(1610, 1L), Map.entry(1810, 1L));
+		assertThat(incremental.librosMasDescargados()).extracting(LibroResumenDTO::titulo)
+				.containsExactly("Don Quijote", "Emma", "Persuasion", "Novelas ejemplares");
+
+		assertThat(estadisticasService.recalcular()).isEqualTo(incremental);
+	}
+
+	private static Libro libro(String titulo, String idioma, int descargas, Autor... autores) {
+		Libro libro = new Libro();
+		libro.setTitulo(titulo);
+		libro.setAutores(new ArrayList<>(List.of(autores)));
+		libro.setNumeroDescargas(descargas);
+		libro.setIdioma(idioma);
+		return libro;
+	}
+}
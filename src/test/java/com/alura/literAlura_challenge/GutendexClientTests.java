@@ -0,0 +1,133 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+class GutendexClientTests {
+
+	private static final GutendexStub stub = new GutendexStub(3, 2);
+
+	private MeterRegistry registro;
+
+	@BeforeEach
+	void reiniciar() {
+		stub.reiniciarContadores();
+		registro = new SimpleMeterRegistry();
+	}
+
+	@AfterAll
+	static void detenerStub() {
+		stub.close();
+	}
+
+	@Test
+	void reintentaAnteErroresDelServidor() {
+		GutendexClient cliente = cliente(3, 5, Duration.ofSeconds(5));
+		stub.estadosForzados.addAll(List.of(503, 429));
+
+		PaginaGutendex respuesta = cliente.obtenerPagina(2).join();
+
+		assertThat(respuesta.libros()).hasSize(2);
+		assertThat(respuesta.total()).isEqualTo(6);
+		assertThat(stub.peticiones.get()).isEqualTo(3);
+		assertThat(intentos("503")).isEqualTo(1);
+		assertThat(intentos("429")).isEqualTo(1);
+		assertThat(intentos("200")).isEqualTo(1);
+	}
+
+	@Test
+	void intentosCuentaTambienElPrimerPedido() {
+		GutendexClient cliente = cliente(2, 5, Duration.ofSeconds(5));
+		stub.estadosForzados.addAll(List.of(503, 503, 503));
+
+		assertThatThrownBy(() -> cliente.obtenerPagina(2).join()).hasCauseInstanceOf(GutendexException.class);
+		assertThat(stub.peticiones.get()).isEqualTo(2);
+	}
+
+	@Test
+	void noReintentaAnteErroresDelCliente() {
+		GutendexClient cliente = cliente(3, 5, Duration.ofSeconds(5));
+		stub.estadosForzados.add(404);
+
+		assertThatThrownBy(() -> cliente.buscar("emma").join())
+			.isInstanceOf(CompletionException.class)
+			.hasCauseInstanceOf(GutendexException.class);
+		assertThat(stub.peticiones.get()).isEqualTo(1);
+	}
+
+	@Test
+	void abreElCircuitoTrasFallosSeguidosYDejaDeLlamar() {
+		GutendexClient cliente = cliente(1, 2, Duration.ofSeconds(5));
+		stub.estadosForzados.addAll(List.of(500, 500));
+
+		for (int i = 0; i < 3; i++) {
+			assertThatThrownBy(() -> cliente.buscar("emma").join()).hasCauseInstanceOf(GutendexException.class);
+		}
+
+		assertThat(cliente.estadoCircuito()).isEqualTo(InterruptorCircuito.Estado.ABIERTO);
+		assertThat(stub.peticiones.get()).isEqualTo(2);
+	}
+
+	@Test
+	void losErroresDelClienteNoAbrenElCircuito() {
+		GutendexClient cliente = cliente(1, 2, Duration.ofSeconds(5));
+		stub.estadosForzados.addAll(List.of(404, 404, 404));
+
+		for (int i = 0; i < 3; i++) {
+			assertThatThrownBy(() -> cliente.obtenerPaginaOrdenadaPorId(9999).join()).hasCauseInstanceOf(GutendexException.class);
+		}
+
+		assertThat(cliente.estadoCircuito()).isEqualTo(InterruptorCircuito.Estado.CERRADO);
+		assertThat(cliente.obtenerPaginaOrdenadaPorId(2).join().libros()).hasSize(2);
+		assertThat(stub.consultas).contains("sort=ascending&page=2");
+	}
+
+	@Test
+	void cortaLasRespuestasLentas() {
+		GutendexClient cliente = cliente(1, 5, Duration.ofMillis(100));
+		stub.latenciaMs = 1000;
+
+		assertThatThrownBy(() -> cliente.obtenerPagina(1).join()).hasCauseInstanceOf(GutendexException.class);
+	}
+
+	@Test
+	void lasLlamadasLentasSimultaneasNoSeEncolan() {
+		GutendexClient cliente = cliente(1, 5, Duration.ofSeconds(5));
+		stub.latenciaMs = 200;
+
+		long inicio = System.nanoTime();
+		List<CompletableFuture<PaginaGutendex>> llamadas = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			llamadas.add(cliente.obtenerPagina(1));
+		}
+		CompletableFuture.allOf(llamadas.toArray(CompletableFuture[]::new)).join();
+		Duration transcurrido = Duration.ofNanos(System.nanoTime() - inicio);
+
+		// En serie tardarían 10 segundos
+		assertThat(transcurrido).isLessThan(Duration.ofSeconds(5));
+		assertThat(stub.peticiones.get()).isEqualTo(50);
+	}
+
+	private long intentos(String estado) {
+		return registro.get("literalura.gutendex.peticiones").tag("operacion", "pagina").tag("estado", estado).timer().count();
+	}
+
+	private GutendexClient cliente(int intentos, int umbralFallos, Duration timeoutRespuesta) {
+		ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		return new GutendexClient(objectMapper, registro, stub.url(), Duration.ofSeconds(1), timeoutRespuesta, intentos, Duration.ofMillis(10),
+				umbralFallos, Duration.ofMinutes(1));
+	}
+}
@@ -0,0 +1,140 @@
+package com.alura.literAlura_challenge;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP local que imita la API de Gutendex con un catálogo sintético,
+ * para probar sin red y contar las peticiones recibidas
+ */
+class GutendexStub implements AutoCloseable {
+
+	private final HttpServer servidor;
+	private final int totalPaginas;
+	private final int librosPorPagina;
+
+	final AtomicInteger peticiones = new AtomicInteger();
+	final Set<Integer> paginasSolicitadas = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger enCurso = new AtomicInteger();
+	final AtomicInteger maximoEnCurso = new AtomicInteger();
+	volatile long latenciaMs;
+	// Códigos de estado que se devolverán, en orden, antes de volver a responder con normalidad
+	final Queue<Integer> estadosForzados = new ConcurrentLinkedQueue<>();
+	// Parámetros (sin decodificar) de cada petición recibida
+	final Queue<String> consultas = new ConcurrentLinkedQueue<>();
+	// Descargas por id que reemplazan a las sintéticas (que son iguales al id)
+	final Map<Integer, Integer> descargasCambiadas = new ConcurrentHashMap<>();
+
+	GutendexStub(int totalPaginas, int librosPorPagina) {
+		this.totalPaginas = totalPaginas;
+		this.librosPorPagina = librosPorPagina;
+		try {
+			servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		servidor.createContext("/books/", this::responder);
+		servidor.setExecutor(Executors.newCachedThreadPool());
+		servidor.start();
+	}
+
+	String url() {
+		return "http://localhost:" + servidor.getAddress().getPort() + "/books/";
+	}
+
+	void reiniciarContadores() {
+		peticiones.set(0);
+		paginasSolicitadas.clear();
+		maximoEnCurso.set(0);
+		latenciaMs = 0;
+		estadosForzados.clear();
+		descargasCambiadas.clear();
+		consultas.clear();
+	}
+
+	private void responder(HttpExchange intercambio) throws IOException {
+		peticiones.incrementAndGet();
+		maximoEnCurso.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+		try {
+			if (latenciaMs > 0) {
+				Thread.sleep(latenciaMs);
+			}
+			Integer estadoForzado = estadosForzados.poll();
+			if (estadoForzado != null) {
+				intercambio.sendResponseHeaders(estadoForzado, -1);
+				intercambio.close();
+				return;
+			}
+			String consulta = intercambio.getRequestURI().getQuery();
+			if (intercambio.getRequestURI().getRawQuery() != null) {
+				consultas.add(intercambio.getRequestURI().getRawQuery());
+			}
+			int pagina = 1;
+			String json;
+			if (consulta != null && consulta.startsWith("ids=")) {
+				json = libros(Arrays.stream(consulta.substring("ids=".length()).split(","))
+					.mapToInt(Integer::parseInt).toArray(), null);
+			} else {
+				for (String parametro : consulta != null ? consulta.split("&") : new String[0]) {
+					if (parametro.startsWith("page=")) {
+						pagina = Integer.parseInt(parametro.substring("page=".length()));
+					}
+				}
+				paginasSolicitadas.add(pagina);
+				int[] ids = new int[librosPorPagina];
+				for (int i = 0; i < librosPorPagina; i++) {
+					ids[i] = (pagina - 1) * librosPorPagina + i + 1;
+				}
+				json = libros(ids, pagina < totalPaginas ? url() + "?page=" + (pagina + 1) : null);
+			}
+			byte[] cuerpo = json.getBytes(StandardCharsets.UTF_8);
+			intercambio.getResponseHeaders().add("Content-Type", "application/json");
+			intercambio.sendResponseHeaders(200, cuerpo.length);
+			try (OutputStream salida = intercambio.getResponseBody()) {
+				salida.write(cuerpo);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			enCurso.decrementAndGet();
+		}
+	}
+
+	private String libros(int[] ids, String siguiente) {
+		StringBuilder json = new StringBuilder();
+		json.append("{\"count\":").append(totalPaginas * librosPorPagina).append(",\"next\":");
+		json.append(siguiente != null ? "\"" + siguiente + "\"" : "null");
+		json.append(",\"results\":[");
+		for (int i = 0; i < ids.length; i++) {
+			int id = ids[i];
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("{\"id\":").append(id)
+				.append(",\"title\":\"Libro sintetico ").append(id).append('"')
+				.append(",\"authors\":[{\"name\":\"Autor ").append(id % 100)
+				.append("\",\"birth_year\":").append(1800 + id % 100)
+				.append(",\"death_year\":").append(1860 + id % 100).append("}]")
+				.append(",\"languages\":[\"en\"],\"download_count\":")
+				.append(descargasCambiadas.getOrDefault(id, id)).append('}');
+		}
+		return json.append("]}").toString();
+	}
+
+	@Override
+	public void close() {
+		servidor.stop(0);
+	}
+}
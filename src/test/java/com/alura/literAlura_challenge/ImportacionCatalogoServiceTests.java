@@ -0,0 +1,88 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@SpringBootTest
+class ImportacionCatalogoServiceTests {
+
+	@Autowired
+	private ImportacionCatalogoService importacionCatalogoService;
+
+	@Autowired
+	private LibroRepository libroRepository;
+
+	@Autowired
+	private AutorRepository autorRepository;
+
+	@BeforeEach
+	void preparar() {
+		libroRepository.deleteAllInBatch();
+		autorRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void importaLaMuestraDelCatalogoNormalizadaComoLaApi() throws Exception {
+		Path muestra = new ClassPathResource("catalogo/pg_catalog_muestra.csv").getFile().toPath();
+
+		ImportacionCatalogoService.ResultadoImportacion resultado = importacionCatalogoService.importar(muestra);
+
+		assertThat(resultado.completa()).isTrue();
+		assertThat(resultado.registrosLeidos()).isEqualTo(17);
+		assertThat(resultado.librosGuardados()).isEqualTo(14);
+		// Sin id, sin título y la grabación (Type Sound)
+		assertThat(resultado.registrosDescartados()).isEqualTo(3);
+		assertThat(autorRepository.count()).isEqualTo(13);
+		assertThat(libroRepository.findGutenbergIdsExistentes(List.of(22000))).isEmpty();
+
+		Libro odisea = libroRepository.findByTituloContainingIgnoreCase("The Odyssey").get(0);
+		assertThat(odisea.getGutenbergId()).isEqualTo(3160);
+		assertThat(odisea.getIdioma()).isEqualTo("en");
+		assertThat(odisea.getNumeroDescargas()).isZero();
+		assertThat(odisea.getAutores()).extracting(Autor::getNombre).containsExactly("Homer");
+		assertThat(odisea.getAutores().get(0).getAnioNacimiento()).isEqualTo(-751);
+		assertThat(libroRepository.findByTituloContainingIgnoreCase("Fantine").get(0).getIdioma()).isEqualTo("fr");
+
+		// Importar de nuevo el mismo archivo no duplica nada
+		assertThat(importacionCatalogoService.importar(muestra).librosGuardados()).isZero();
+		assertThat(libroRepository.count()).isEqualTo(14);
+	}
+
+	@Test
+	void importaVariosBloquesEnParalelo(@TempDir Path directorio) throws Exception {
+		int libros = ImportacionCatalogoService.TAMANO_BLOQUE * 5 + 123;
+		StringBuilder csv = new StringBuilder("Text#,Type,Issued,Title,Language,Authors,Subjects,LoCC,Bookshelves\n");
+		for (int id = 1; id <= libros; id++) {
+			csv.append(id).append(",Text,2000-01-01,\"Libro importado ").append(id).append("\",en,\"Autor, Importado ")
+					.append(id % 50).append(", 1800-1870\",Misc,PR,\n");
+		}
+		Path archivo = directorio.resolve("pg_catalog.csv");
+		Files.writeString(archivo, csv, StandardCharsets.UTF_8);
+
+		ImportacionCatalogoService.ResultadoImportacion resultado = importacionCatalogoService.importar(archivo);
+
+		assertThat(resultado).isEqualTo(new ImportacionCatalogoService.ResultadoImportacion(libros, libros, 0, null));
+		assertThat(libroRepository.count()).isEqualTo(libros);
+		assertThat(libroRepository.findGutenbergIdsExistentes(List.of(1, libros, libros + 1))).containsExactlyInAnyOrder(1, libros);
+		assertThat(autorRepository.count()).isEqualTo(50);
+	}
+
+	@Test
+	void informaLosArchivosQueNoSePuedenLeer(@TempDir Path directorio) {
+		ImportacionCatalogoService.ResultadoImportacion resultado =
+				importacionCatalogoService.importar(directorio.resolve("no-existe.csv"));
+
+		assertThat(resultado.completa()).isFalse();
+		assertThat(resultado.error()).contains("no-existe.csv");
+	}
+}
@@ -0,0 +1,82 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+class IndiceSugerenciasTests {
+
+	@Test
+	void completaPrefijosYToleraErroresDeTipeo() {
+		IndiceSugerencias indice = new IndiceSugerencias();
+		indice.agregar(List.of(
+				libro("Pride and Prejudice", 50_000, "Austen, Jane"),
+				libro("Persuasion", 9_000, "Austen, Jane"),
+				libro("Don Quijote", 20_000, "Cervantes Saavedra, Miguel de"),
+				libro("Cien años de soledad", 7_000, "García Márquez, Gabriel")));
+
+		assertThat(indice.sugerir("pri", 10)).extracting(IndiceSugerencias.Sugerencia::texto)
+				.containsExactly("Pride and Prejudice");
+		// Un error en una palabra de 7 letras, sin tildes y con la última palabra incompleta
+		assertThat(indice.sugerir("Don Quixote", 10)).extracting(IndiceSugerencias.Sugerencia::texto)
+				.containsExactly("Don Quijote");
+		assertThat(indice.sugerir("garcia marq", 10)).singleElement().satisfies(sugerencia -> {
+			assertThat(sugerencia.texto()).isEqualTo("García Márquez, Gabriel");
+			assertThat(sugerencia.tipo()).isEqualTo(IndiceSugerencias.AUTOR);
+		});
+		assertThat(indice.sugerir("cien anos", 10)).extracting(IndiceSugerencias.Sugerencia::texto)
+				.containsExactly("Cien años de soledad");
+		// Las palabras cortas no admiten errores
+		assertThat(indice.sugerir("xon", 10)).isEmpty();
+		assertThat(indice.sugerir("  ", 10)).isEmpty();
+	}
+
+	@Test
+	void ordenaPorCercaniaYDescargasYSeActualizaAlAgregar() {
+		IndiceSugerencias indice = new IndiceSugerencias();
+		indice.agregar(List.of(libro("Pride and Prejudice", 50_000, "Austen, Jane"), libro("Persuasion", 9_000, "Austen, Jane")));
+
+		// Las descargas de un autor se suman entre sus libros
+		assertThat(indice.sugerir("austen", 10)).singleElement()
+				.extracting(IndiceSugerencias.Sugerencia::peso).isEqualTo(59_000L);
+		assertThat(indice.sugerir("p", 10)).extracting(IndiceSugerencias.Sugerencia::texto)
+				.containsExactly("Pride and Prejudice", "Persuasion");
+
+		indice.agregar(List.of(libro("Peter Pan", 90_000, "Barrie, J. M.")));
+
+		assertThat(indice.sugerir("p", 2)).extracting(IndiceSugerencias.Sugerencia::texto)
+				.containsExactly("Peter Pan", "Pride and Prejudice");
+		assertThat(indice.sugerir("peter", 10)).extracting(IndiceSugerencias.Sugerencia::texto)
+				.containsExactly("Peter Pan");
+		assertThat(indice.sugerir("pride", 10)).extracting(IndiceSugerencias.Sugerencia::texto)
+				.containsExactly("Pride and Prejudice");
+		assertThat(indice.cantidadTextos()).isEqualTo(5);
+	}
+
+	@Test
+	void encuentraTextosPocoDescargadosPorSusPalabrasCompletas() {
+		IndiceSugerencias indice = new IndiceSugerencias();
+		List<Libro> libros = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			libros.add(libro("Volumen " + i + " de la serie", 1000 + i, "Autor " + i));
+		}
+		libros.add(libro("Coleccion rara 7", 1, "Anonimo"));
+		indice.agregar(libros);
+
+		// "7" solo no alcanza al libro menos descargado, pero "rara" sí
+		assertThat(indice.sugerir("rara 7", 10)).extracting(IndiceSugerencias.Sugerencia::texto)
+				.containsExactly("Coleccion rara 7");
+		assertThat(indice.sugerir("volumen 1", 50)).hasSize(50)
+				.allSatisfy(sugerencia -> assertThat(sugerencia.texto()).startsWith("Volumen 1"));
+	}
+
+	private static Libro libro(String titulo, int descargas, String autor) {
+		Libro libro = new Libro();
+		libro.setTitulo(titulo);
+		libro.setNumeroDescargas(descargas);
+		libro.setAutores(new ArrayList<>(List.of(new Autor(autor, null, null))));
+		return libro;
+	}
+}
@@ -0,0 +1,110 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest
+class IngestaConcurrenteTests {
+
+	private static final int BUSQUEDAS = 24;
+	private static final int LIBROS = 40;
+
+	@Autowired
+	private IngestaLibrosService ingestaLibrosService;
+
+	@Autowired
+	private LibroRepository libroRepository;
+
+	@Autowired
+	private AutorRepository autorRepository;
+
+	@BeforeEach
+	void preparar() {
+		libroRepository.deleteAllInBatch();
+		autorRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void busquedasSimultaneasNoDuplicanLibros() throws Exception {
+		ExecutorService hilos = Executors.newFixedThreadPool(BUSQUEDAS);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Integer>> resultados = new ArrayList<>();
+		try {
+			for (int i = 0; i < BUSQUEDAS; i++) {
+				// Cada búsqueda convierte la misma respuesta de la API en sus propias entidades
+				List<Libro> pagina = pagina();
+				resultados.add(hilos.submit(() -> {
+					largada.await();
+					return ingestaLibrosService.guardarNuevos(pagina).size();
+				}));
+			}
+			largada.countDown();
+			int insertados = 0;
+			for (Future<Integer> resultado : resultados) {
+				insertados += resultado.get();
+			}
+
+			assertThat(insertados).isEqualTo(LIBROS);
+			assertThat(libroRepository.count()).isEqualTo(LIBROS);
+			assertThat(libroRepository.findAll()).extracting(Libro::getGutenbergId).doesNotHaveDuplicates();
+			assertThat(autorRepository.count()).isEqualTo(LIBROS / 2);
+		} finally {
+			hilos.shutdownNow();
+		}
+	}
+
+	@Test
+	void guardaEdicionesConElMismoTituloYAsignaElIdALosLibrosAnteriores() {
+		Libro anterior = libro(null, "Hamlet");
+		ingestaLibrosService.guardarNuevos(List.of(anterior));
+
+		List<Libro> guardados = ingestaLibrosService.guardarNuevos(List.of(libro(1524, "Hamlet"), libro(2265, "Hamlet")));
+
+		assertThat(guardados).extracting(Libro::getGutenbergId).containsExactly(2265);
+		assertThat(libroRepository.findById(anterior.getId())).get().extracting(Libro::getGutenbergId).isEqualTo(1524);
+		assertThat(ingestaLibrosService.guardarNuevos(List.of(libro(1524, "Hamlet"), libro(2265, "Hamlet")))).isEmpty();
+		assertThat(libroRepository.count()).isEqualTo(2);
+	}
+
+	@Test
+	void unLibroQueLaBDRechazaNoImpideGuardarElRestoDelLote() {
+		List<Libro> libros = pagina();
+		String tituloLargo = "Titulo largo ".repeat(30);
+		libros.get(3).setTitulo(tituloLargo);
+		libros.get(17).setTitulo("x".repeat(Libro.LARGO_TITULO + 1));
+
+		List<Libro> guardados = ingestaLibrosService.guardarNuevos(libros);
+
+		assertThat(guardados).hasSize(LIBROS - 1).extracting(Libro::getGutenbergId).doesNotContain(18);
+		assertThat(libroRepository.count()).isEqualTo(LIBROS - 1);
+		assertThat(libroRepository.findAll()).extracting(Libro::getTitulo).contains(tituloLargo);
+	}
+
+	private static List<Libro> pagina() {
+		List<Libro> libros = new ArrayList<>();
+		for (int id = 1; id <= LIBROS; id++) {
+			libros.add(libro(id, "Libro concurrente " + id));
+		}
+		return libros;
+	}
+
+	private static Libro libro(Integer gutenbergId, String titulo) {
+		Libro libro = new Libro();
+		libro.setGutenbergId(gutenbergId);
+		libro.setTitulo(titulo);
+		libro.setAutores(new ArrayList<>(List.of(new Autor("Autor concurrente " + (gutenbergId != null ? gutenbergId % 20 : 0), 1800, 1870))));
+		libro.setNumeroDescargas(gutenbergId != null ? gutenbergId : 0);
+		libro.setIdioma("en");
+		return libro;
+	}
+}
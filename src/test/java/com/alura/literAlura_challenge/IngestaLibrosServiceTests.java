@@ -0,0 +1,75 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest
+@Import({IngestaLibrosService.class, EstadisticasService.class, CacheSegundoNivel.class, SimpleMeterRegistry.class})
+class IngestaLibrosServiceTests {
+
+	@Autowired
+	private IngestaLibrosService ingestaLibrosService;
+
+	@Autowired
+	private LibroRepository libroRepository;
+
+	@Autowired
+	private AutorRepository autorRepository;
+
+	@Test
+	void guardaSoloLibrosNuevosDelLote() {
+		ingestaLibrosService.guardarNuevos(List.of(libro("Emma"), libro("Persuasion")));
+
+		List<Libro> guardados = ingestaLibrosService.guardarNuevos(
+				List.of(libro("Emma"), libro("Dracula"), libro("Dracula"), libro(null)));
+
+		assertThat(guardados).extracting(Libro::getTitulo).containsExactly("Dracula");
+		assertThat(libroRepository.count()).isEqualTo(3);
+	}
+
+	@Test
+	void reutilizaLosAutoresRegistradosYCompletaSusAnios() {
+		Libro emma = libro("Emma");
+		emma.setAutores(new ArrayList<>(List.of(new Autor("Austen, Jane", null, null))));
+		ingestaLibrosService.guardarNuevos(List.of(emma));
+
+		Libro persuasion = libro("Persuasion");
+		persuasion.setAutores(new ArrayList<>(List.of(new Autor("Austen, Jane", 1775, 1817), new Autor("Otro", null, null))));
+		ingestaLibrosService.guardarNuevos(List.of(persuasion));
+
+		assertThat(autorRepository.count()).isEqualTo(2);
+		Autor austen = autorRepository.findByNombreIn(List.of("Austen, Jane")).get(0);
+		assertThat(austen.getAnioNacimiento()).isEqualTo(1775);
+		assertThat(austen.getAnioFallecimiento()).isEqualTo(1817);
+		assertThat(libroRepository.findByTituloContainingIgnoreCase("Persuasion").get(0).getAutores())
+				.extracting(Autor::getNombre).containsExactly("Austen, Jane", "Otro");
+	}
+
+	@Test
+	void guardaVariasPaginasEnUnaSolaLlamada() {
+		List<Libro> libros = new ArrayList<>();
+		for (int i = 0; i < 2500; i++) {
+			libros.add(libro("Libro " + i));
+		}
+
+		assertThat(ingestaLibrosService.guardarNuevos(libros)).hasSize(2500);
+		assertThat(ingestaLibrosService.guardarNuevos(libros)).isEmpty();
+		assertThat(libroRepository.count()).isEqualTo(2500);
+	}
+
+	private static Libro libro(String titulo) {
+		Libro libro = new Libro();
+		libro.setTitulo(titulo);
+		libro.setAutores(new ArrayList<>(List.of(new Autor("Autor", 1800, 1870))));
+		libro.setNumeroDescargas(0);
+		libro.setIdioma("en");
+		return libro;
+	}
+}
@@ -0,0 +1,50 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.alura.literAlura_challenge.LibroGutendex.AutorGutendex;
+import org.junit.jupiter.api.Test;
+import java.io.StringReader;
+import java.util.List;
+
+class LectorCatalogoCsvTests {
+
+	@Test
+	void separaRegistrosConSaltosDeLineaYComillasDentroDeLosCamposYSoloConvierteLosTextos() throws Exception {
+		String csv = "\uFEFFText#,Type,Title,Language,Authors\r\n"
+				+ "1,Text,\"Les Misérables\nFantine\",fr,\"Hugo, Victor, 1802-1885\"\r\n"
+				+ "2,Text,\"El \"\"Principito\"\", cuentos\",es; en,\r\n"
+				+ "abc,Text,Sin id,en,\r\n"
+				+ "4,Sound,Grabación de Les Misérables,fr,\"Hugo, Victor, 1802-1885\"\r\n"
+				+ "3,Text,Sin salto final,,Anonymous";
+		LectorCatalogoCsv lector = new LectorCatalogoCsv(new StringReader(csv));
+
+		List<String> registros = lector.siguienteBloque(10);
+
+		assertThat(registros).hasSize(5);
+		assertThat(lector.siguienteBloque(10)).isEmpty();
+		assertThat(lector.convertir(registros)).containsExactly(
+				new LibroGutendex(1, "Les Misérables\nFantine", List.of(new AutorGutendex("Hugo, Victor", 1802, 1885)), 0, "fr"),
+				new LibroGutendex(2, "El \"Principito\", cuentos", List.of(), 0, "es"),
+				new LibroGutendex(3, "Sin salto final", List.of(new AutorGutendex("Anonymous", null, null)), 0, "en"));
+	}
+
+	@Test
+	void convierteAutoresConSusAniosYDescartaColaboradores() {
+		assertThat(LectorCatalogoCsv.convertirAutores(
+				"Homer, 751? BCE-651? BCE; Butler, Samuel, 1835-1902 [Translator]; Cantor, Anónimo, active 1200; Autor, Sin Nacimiento, -1900"))
+				.containsExactly(
+						new AutorGutendex("Homer", -751, -651),
+						new AutorGutendex("Cantor, Anónimo", null, null),
+						new AutorGutendex("Autor, Sin Nacimiento", null, 1900));
+		assertThat(LectorCatalogoCsv.convertirAutores("")).isEmpty();
+	}
+
+	@Test
+	void rechazaArchivosSinLasColumnasNecesarias() {
+		assertThatThrownBy(() -> new LectorCatalogoCsv(new StringReader("id,titulo\n1,Libro\n")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Text#");
+	}
+}
@@ -0,0 +1,53 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.alura.literAlura_challenge.LibroGutendex.AutorGutendex;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+class LectorGutendexTests {
+
+	private final LectorGutendex lector = new LectorGutendex(new JsonFactory());
+
+	@Test
+	void leeSoloLosCamposUsadosYSaltaElResto() throws Exception {
+		String json = """
+				{"count": 2, "next": "https://gutendex.com/books/?page=2", "previous": null, "results": [
+				  {"id": 84, "title": "Frankenstein", "subjects": ["Horror", {"anidado": [1, 2]}],
+				   "authors": [{"name": "Shelley, Mary", "birth_year": 1797, "death_year": 1851}, {"name": " "}, null],
+				   "formats": {"text/html": "https://www.gutenberg.org/ebooks/84.html.images"},
+				   "languages": ["en", "fr"], "copyright": false, "download_count": 93000},
+				  {"id": 2, "title": null, "authors": [], "languages": []}
+				]}
+				""";
+
+		PaginaGutendex pagina = lector.leer(json.getBytes(StandardCharsets.UTF_8));
+
+		assertThat(pagina.total()).isEqualTo(2);
+		assertThat(pagina.siguiente()).isEqualTo("https://gutendex.com/books/?page=2");
+		assertThat(pagina.libros()).containsExactly(
+				new LibroGutendex(84, "Frankenstein", List.of(new AutorGutendex("Shelley, Mary", 1797, 1851)), 93000, "en"),
+				new LibroGutendex(2, null, List.of(), 0, "en"));
+	}
+
+	@Test
+	void elMismoLibroSirveParaElDTOYParaLaEntidad() throws Exception {
+		String json = """
+				{"results": [{"id": 1342, "title": "Pride and Prejudice", "download_count": 70000, "languages": ["en"],
+				  "authors": [{"name": "Austen, Jane", "birth_year": 1775, "death_year": 1817}, {"name": "Otro"}]}]}
+				""";
+
+		LibroGutendex libro = lector.leer(json.getBytes(StandardCharsets.UTF_8)).libros().get(0);
+
+		assertThat(libro.aLibroDTO()).isEqualTo(new LibroDTO("Pride and Prejudice", "Austen, Jane", 1817, 1775, 70000, "en",
+				List.of("Austen, Jane", "Otro")));
+		Libro entidad = libro.aEntidad();
+		assertThat(entidad.getGutenbergId()).isEqualTo(1342);
+		assertThat(entidad.getAutores()).extracting(Autor::getNombre).containsExactly("Austen, Jane", "Otro");
+		assertThat(entidad.getAutores().get(0).getAnioNacimiento()).isEqualTo(1775);
+		assertThat(new LibroGutendex(null, null, List.of(), 0, "en").aLibroDTO().autor()).isEqualTo(LibroService.AUTOR_DESCONOCIDO);
+	}
+}
@@ -0,0 +1,155 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LibroControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private LibroRepository libroRepository;
+
+	@Autowired
+	private AutorRepository autorRepository;
+
+	@Autowired
+	private IngestaLibrosService ingestaLibrosService;
+
+	@BeforeEach
+	void preparar() {
+		libroRepository.deleteAllInBatch();
+		autorRepository.deleteAllInBatch();
+		List<Libro> libros = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			Libro libro = new Libro();
+			libro.setTitulo("Libro " + i);
+			libro.setAutores(new ArrayList<>(List.of(new Autor("Autor " + i, 1800, 1870), new Autor("Coautor", null, null))));
+			libro.setNumeroDescargas(i);
+			libro.setIdioma("en");
+			libros.add(libro);
+		}
+		ingestaLibrosService.guardarNuevos(libros);
+	}
+
+	@Test
+	void recorreElCatalogoConCursores() throws Exception {
+		Set<String> titulos = new HashSet<>();
+		String cursor = "";
+		int paginas = 0;
+		while (cursor != null) {
+			String respuesta = mockMvc.perform(get("/books/catalogo").param("cursor", cursor).param("size", "10"))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			PaginaLibros pagina = objectMapper.readValue(respuesta, PaginaLibros.class);
+			pagina.libros().forEach(libro -> titulos.add(libro.titulo()));
+			cursor = pagina.siguienteCursor();
+			paginas++;
+		}
+
+		assertThat(paginas).isEqualTo(3);
+		assertThat(titulos).hasSize(25);
+	}
+
+	@Test
+	void devuelveElSiguienteCursorEnLaCabeceraDeBooks() throws Exception {
+		MvcResult inicio = mockMvc.perform(get("/books").param("cursor", "").param("size", "20"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult primera = mockMvc.perform(asyncDispatch(inicio))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(20))
+				.andExpect(header().exists(LibroController.CABECERA_SIGUIENTE_CURSOR))
+				.andReturn();
+
+		String siguiente = primera.getResponse().getHeader(LibroController.CABECERA_SIGUIENTE_CURSOR);
+		MvcResult continuacion = mockMvc.perform(get("/books").param("cursor", siguiente).param("size", "20")).andReturn();
+		mockMvc.perform(asyncDispatch(continuacion))
+				.andExpect(jsonPath("$.length()").value(5))
+				.andExpect(header().doesNotExist(LibroController.CABECERA_SIGUIENTE_CURSOR));
+	}
+
+	@Test
+	void devuelveElIdDeTrazaDeCadaPeticion() throws Exception {
+		mockMvc.perform(get("/books/catalogo").header(FiltroTraza.CABECERA_TRAZA, "prueba-123"))
+				.andExpect(header().string(FiltroTraza.CABECERA_TRAZA, "prueba-123"));
+		mockMvc.perform(get("/books/catalogo"))
+				.andExpect(header().string(FiltroTraza.CABECERA_TRAZA, matchesPattern("[0-9a-f]{16}")));
+	}
+
+	@Test
+	void sugiereTitulosYAutoresDelCatalogo() throws Exception {
+		// El índice se comparte con otras pruebas del mismo contexto: se busca un título que solo existe aquí
+		Libro libro = new Libro();
+		libro.setTitulo("Crónicas de Literalura");
+		libro.setAutores(new ArrayList<>(List.of(new Autor("Coautor", null, null))));
+		libro.setNumeroDescargas(3);
+		libro.setIdioma("es");
+		ingestaLibrosService.guardarNuevos(List.of(libro));
+
+		mockMvc.perform(get("/books/suggest").param("q", "cronicas lit").param("limit", "3"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].texto").value("Crónicas de Literalura"))
+				.andExpect(jsonPath("$[0].tipo").value("titulo"));
+		mockMvc.perform(get("/books/suggest").param("q", "coatuor"))
+				.andExpect(jsonPath("$[0].texto").value("Coautor"))
+				.andExpect(jsonPath("$[0].tipo").value("autor"));
+	}
+
+	@Test
+	void rechazaCursoresInvalidos() throws Exception {
+		mockMvc.perform(get("/books/catalogo").param("cursor", "no-es-un-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void rechazaFiltrosDeBusquedaInvalidos() throws Exception {
+		mockMvc.perform(get("/books").param("search", "emma downloads>muchas"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void exportaElCatalogoComoNdjson() throws Exception {
+		MvcResult inicio = mockMvc.perform(get("/books/export"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String cuerpo = mockMvc.perform(asyncDispatch(inicio))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(LibroController.NDJSON))
+				.andReturn().getResponse().getContentAsString();
+
+		String[] lineas = cuerpo.trim().split("\n");
+		assertThat(lineas).hasSize(25);
+		LibroDTO primero = objectMapper.readValue(lineas[0], LibroDTO.class);
+		assertThat(primero.titulo()).isEqualTo("Libro 0");
+		assertThat(primero.autores()).containsExactly("Autor 0", "Coautor");
+		assertThat(primero.fechaNacimiento()).isEqualTo(1800);
+	}
+}
@@ -0,0 +1,263 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest
+class LibroServiceTests {
+
+	private static final GutendexStub stub = new GutendexStub(1, 4);
+
+	@DynamicPropertySource
+	static void apiLocal(DynamicPropertyRegistry registro) {
+		registro.add("gutenberg.api.url", stub::url);
+	}
+
+	@Autowired
+	private LibroService libroService;
+
+	@Autowired
+	private LibroRepository libroRepository;
+
+	@Autowired
+	private AutorRepository autorRepository;
+
+	@Autowired
+	private CacheRespuestasGutendex cacheRespuestas;
+
+	@Autowired
+	private MeterRegistry registro;
+
+	@BeforeEach
+	void preparar() {
+		libroRepository.deleteAllInBatch();
+		autorRepository.deleteAllInBatch();
+		libroRepository.saveAll(List.of(
+				libro("Pride and Prejudice", "Austen, Jane"),
+				libro("Emma", "Austen, Jane"),
+				libro("Prejudice: A Study", "Smith, John")));
+		stub.reiniciarContadores();
+		cacheRespuestas.limpiar();
+	}
+
+	@AfterAll
+	static void detenerStub() {
+		stub.close();
+	}
+
+	@Test
+	void respondeDesdeLaBDOrdenandoPorRelevancia() {
+		List<LibroDTO> libros = libroService.buscarLibros("PREJUDICE");
+
+		assertThat(libros).extracting(LibroDTO::titulo)
+				.containsExactly("Prejudice: A Study", "Pride and Prejudice");
+		assertThat(stub.peticiones.get()).isZero();
+	}
+
+	@Test
+	void exigeTodasLasPalabrasEnTituloOAutor() {
+		assertThat(libroService.buscarLibros("austen emma")).extracting(LibroDTO::titulo).containsExactly("Emma");
+		assertThat(libroService.buscarLibros("austen", 1, 1)).extracting(LibroDTO::titulo).containsExactly("Emma");
+		assertThat(stub.peticiones.get()).isZero();
+	}
+
+	@Test
+	void consultaLaAPISiNoHayResultadosLocales() {
+		List<LibroDTO> libros = libroService.buscarLibros("sintetico");
+
+		assertThat(libros).hasSize(4);
+		assertThat(stub.peticiones.get()).isEqualTo(1);
+		assertThat(libroService.buscarLibros("sintetico")).hasSize(4);
+		assertThat(stub.peticiones.get()).isEqualTo(1);
+	}
+
+	@Test
+	void mideLasBusquedasPorOrigenYCuentaLosLibrosGuardados() {
+		long remotas = busquedas("remota");
+		long locales = busquedas("local");
+		double guardados = registro.get("literalura.ingesta.libros").tag("resultado", "guardado").counter().count();
+
+		libroService.buscarLibros("sintetico");
+		libroService.buscarLibros("emma");
+
+		assertThat(busquedas("remota")).isEqualTo(remotas + 1);
+		assertThat(busquedas("local")).isEqualTo(locales + 1);
+		assertThat(registro.get("literalura.ingesta.libros").tag("resultado", "guardado").counter().count())
+				.isEqualTo(guardados + 4);
+		assertThat(registro.get("literalura.gutendex.peticiones").tag("estado", "200").timer().count()).isPositive();
+	}
+
+	private long busquedas(String origen) {
+		return registro.get("literalura.busqueda").tag("origen", origen).timer().count();
+	}
+
+	@Test
+	void consultaLaAPISiLosResultadosLocalesNoSonVigentes() {
+		Libro antiguo = libroRepository.findAll().get(0);
+		antiguo.setActualizadoEn(LocalDateTime.now().minusYears(1));
+		libroRepository.save(antiguo);
+
+		libroService.buscarLibros(antiguo.getTitulo());
+
+		assertThat(stub.peticiones.get()).isEqualTo(1);
+	}
+
+	@Test
+	void laBusquedaRemotaRenuevaLasCoincidenciasLocales() {
+		Libro antiguo = libro("Libro sintetico 1", "Autor 1");
+		antiguo.setGutenbergId(1);
+		antiguo.setActualizadoEn(LocalDateTime.now().minusYears(1));
+		libroRepository.save(antiguo);
+
+		libroService.buscarLibros("sintetico 1");
+		cacheRespuestas.limpiar();
+		List<LibroDTO> libros = libroService.buscarLibros("sintetico 1");
+
+		assertThat(libros).extracting(LibroDTO::titulo).containsExactly("Libro sintetico 1");
+		assertThat(stub.peticiones.get()).isEqualTo(1);
+		assertThat(libroRepository.findById(antiguo.getId()).orElseThrow().getActualizadoEn())
+				.isAfter(LocalDateTime.now().minusMinutes(1));
+	}
+
+	@Test
+	void devuelveLosResultadosLocalesAntiguosSiLaAPIFalla() {
+		Libro antiguo = libroRepository.findAll().get(0);
+		antiguo.setActualizadoEn(LocalDateTime.now().minusYears(1));
+		libroRepository.save(antiguo);
+		stub.estadosForzados.addAll(List.of(503, 503, 503));
+
+		List<LibroDTO> libros = libroService.buscarLibros(antiguo.getTitulo());
+
+		assertThat(libros).extracting(LibroDTO::titulo).containsExactly(antiguo.getTitulo());
+		assertThat(stub.peticiones.get()).isEqualTo(3);
+	}
+
+	@Test
+	void agrupaBusquedasRemotasIdenticasSimultaneas() throws Exception {
+		stub.latenciaMs = 300;
+		ExecutorService executor = Executors.newFixedThreadPool(20);
+		try {
+			List<Future<List<LibroDTO>>> futuros = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				String variante = i % 2 == 0 ? "Sintetico" : "  sintetico ";
+				futuros.add(executor.submit(() -> libroService.buscarLibros(variante)));
+			}
+			for (Future<List<LibroDTO>> futuro : futuros) {
+				assertThat(futuro.get()).hasSize(4);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(stub.peticiones.get()).isEqualTo(1);
+	}
+
+	@Test
+	void aplicaLosFiltrosEnUnaSolaConsultaLocal() {
+		Autor austen = autorRepository.findByNombreIn(List.of("Austen, Jane")).get(0);
+		austen.setAnioNacimiento(1775);
+		austen.setAnioFallecimiento(1817);
+		autorRepository.save(austen);
+		Libro emma = libroRepository.findByTituloContainingIgnoreCase("Emma").get(0);
+		emma.setNumeroDescargas(5000);
+		libroRepository.save(emma);
+
+		assertThat(libroService.buscarLibros("prejudice author:austen")).extracting(LibroDTO::titulo)
+				.containsExactly("Pride and Prejudice");
+		assertThat(libroService.buscarLibros("lang:en alive:1800")).extracting(LibroDTO::titulo)
+				.containsExactly("Emma", "Pride and Prejudice");
+		assertThat(libroService.buscarLibros("lang:en downloads>1000")).extracting(LibroDTO::titulo)
+				.containsExactly("Emma");
+		assertThat(stub.peticiones.get()).isZero();
+	}
+
+	@Test
+	void enviaALaAPILosFiltrosQueResuelveYVerificaElResto() {
+		List<LibroDTO> libros = libroService.buscarLibros("sintetico author:autor lang:fr alive:1850 downloads>2");
+
+		assertThat(stub.consultas).containsExactly(
+				"search=sintetico%20autor&languages=fr&author_year_start=1850&author_year_end=1850");
+		// El stub devuelve los libros 1 a 4 con tantas descargas como su id
+		assertThat(libros).extracting(LibroDTO::titulo).containsExactly("Libro sintetico 3", "Libro sintetico 4");
+	}
+
+	@Test
+	void uneLosResultadosLocalesYRemotosSinRepetirLibros() {
+		Libro antiguo = libro("Libro sintetico 1", "Autor 1");
+		antiguo.setActualizadoEn(LocalDateTime.now().minusYears(1));
+		libroRepository.save(antiguo);
+
+		List<LibroDTO> libros = libroService.buscarLibros("sintetico");
+
+		assertThat(stub.peticiones.get()).isEqualTo(1);
+		assertThat(libros).extracting(LibroDTO::titulo).containsExactly(
+				"Libro sintetico 1", "Libro sintetico 2", "Libro sintetico 3", "Libro sintetico 4");
+		assertThat(libros.get(0).numeroDescargas()).isEqualTo(1);
+	}
+
+	@Test
+	void recorreLosAutoresEnOrdenAlfabetico() {
+		List<String> autores = new ArrayList<>();
+		libroService.recorrerAutores(autores::add);
+
+		assertThat(autores).containsSubsequence("Austen, Jane", "Smith, John").doesNotHaveDuplicates();
+	}
+
+	@Test
+	void listaLosAutoresVivosEnUnAnioConSusTitulos() {
+		Autor austen = autorRepository.findByNombreIn(List.of("Austen, Jane")).get(0);
+		austen.setAnioNacimiento(1775);
+		austen.setAnioFallecimiento(1817);
+		autorRepository.save(austen);
+
+		List<AutorDTO> vivos = new ArrayList<>();
+		int total = libroService.recorrerAutoresVivosEn(1800, vivos::add);
+
+		assertThat(total).isEqualTo(1);
+		assertThat(vivos.get(0).nombre()).isEqualTo("Austen, Jane");
+		assertThat(vivos.get(0).titulos()).containsExactly("Emma", "Pride and Prejudice");
+		assertThat(libroService.recorrerAutoresVivosEn(1900, vivos::add)).isZero();
+	}
+
+	@Test
+	void recorreLosLibrosDeUnIdiomaEnVariasPaginas() {
+		List<Libro> franceses = new ArrayList<>();
+		for (int i = 0; i < LibroService.TAMANO_PAGINA_LISTADO * 2 + 10; i++) {
+			Libro libro = libro("Livre " + i, "Hugo, Victor");
+			libro.setIdioma("fr");
+			franceses.add(libro);
+		}
+		libroRepository.saveAll(franceses);
+
+		List<LibroResumenDTO> libros = new ArrayList<>();
+		int total = libroService.recorrerLibrosPorIdioma(" FR ", libros::add);
+
+		assertThat(total).isEqualTo(franceses.size());
+		assertThat(libros).extracting(LibroResumenDTO::id).isSorted().doesNotHaveDuplicates();
+		assertThat(libros).allSatisfy(libro -> assertThat(libro.autor()).isEqualTo("Hugo, Victor"));
+	}
+
+	private Libro libro(String titulo, String autor) {
+		Libro libro = new Libro();
+		libro.setTitulo(titulo);
+		libro.setAutores(new ArrayList<>(List.of(autorRepository.findByNombreIn(List.of(autor)).stream().findFirst()
+				.orElseGet(() -> autorRepository.save(new Autor(autor, null, null))))));
+		libro.setNumeroDescargas(0);
+		libro.setIdioma("en");
+		return libro;
+	}
+}
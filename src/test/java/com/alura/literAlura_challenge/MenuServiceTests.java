@@ -0,0 +1,187 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+@SpringBootTest
+class MenuServiceTests {
+
+	private static final GutendexStub stub = new GutendexStub(1, 4);
+
+	@DynamicPropertySource
+	static void apiLocal(DynamicPropertyRegistry registro) {
+		registro.add("gutenberg.api.url", stub::url);
+	}
+
+	@Autowired
+	private MenuService menuService;
+
+	@Autowired
+	private LibroRepository libroRepository;
+
+	@Autowired
+	private AutorRepository autorRepository;
+
+	@Autowired
+	private CacheRespuestasGutendex cacheRespuestas;
+
+	private PipedOutputStream teclado;
+	private final ByteArrayOutputStream pantalla = new ByteArrayOutputStream();
+	private Thread menu;
+
+	@BeforeEach
+	void preparar() throws IOException {
+		libroRepository.deleteAllInBatch();
+		autorRepository.deleteAllInBatch();
+		stub.reiniciarContadores();
+		cacheRespuestas.limpiar();
+		teclado = new PipedOutputStream();
+		PipedInputStream entrada = new PipedInputStream(teclado, 1 << 16);
+		menu = new Thread(() -> menuService.mostrarMenu(entrada, pantalla, StandardCharsets.UTF_8), "menu-prueba");
+		menu.start();
+	}
+
+	@AfterEach
+	void salir() throws Exception {
+		escribir("0");
+		teclado.close();
+		menu.join(10_000);
+		assertThat(menu.isAlive()).isFalse();
+	}
+
+	@AfterAll
+	static void detenerStub() {
+		stub.close();
+	}
+
+	@Test
+	void uneLasBusquedasSinRepetirLibros() throws Exception {
+		libroRepository.saveAll(List.of(
+				libro("Pride and Prejudice", "Austen, Jane"),
+				libro("Emma", "Austen, Jane"),
+				libro("Moby Dick", "Melville, Herman")));
+
+		escribir("1");
+		escribir("austen; emma");
+		esperar(() -> veces(pantalla(), "Seleccione una opción") == 2);
+
+		String salida = pantalla();
+		assertThat(salida).contains("Título: Pride and Prejudice").doesNotContain("Moby Dick");
+		assertThat(veces(salida, "Título: Emma")).isEqualTo(1);
+		assertThat(stub.peticiones.get()).isZero();
+	}
+
+	@Test
+	void unLibroQueLlegaDeLaBDYDeLaAPIApareceUnaVez() throws Exception {
+		libroRepository.save(libro("Libro sintetico 1", "Autor 1"));
+
+		escribir("1");
+		// La primera se responde desde la BD y la segunda desde la API, con otras descargas para el mismo libro
+		escribir("autor 1; sintetico 2");
+		esperar(() -> veces(pantalla(), "Seleccione una opción") == 2);
+
+		String salida = pantalla();
+		assertThat(stub.peticiones.get()).isEqualTo(1);
+		assertThat(veces(salida, "Título: Libro sintetico 1")).isEqualTo(1);
+		assertThat(veces(salida, "------- LIBRO -------")).isEqualTo(4);
+	}
+
+	@Test
+	void muestraElErrorDeLaAPIEnVezDeDecirQueNoHayLibros() throws Exception {
+		stub.estadosForzados.addAll(List.of(503, 503, 503));
+
+		escribir("1");
+		escribir("sintetico");
+		esperar(() -> veces(pantalla(), "Seleccione una opción") == 2);
+
+		assertThat(pantalla()).contains("No se pudo completar la búsqueda (sintetico): La API respondió con estado 503")
+				.doesNotContain("No se encontraron libros");
+	}
+
+	@Test
+	void cancelaUnaBusquedaSinEsperarLaRespuestaDeLaAPI() throws Exception {
+		stub.latenciaMs = 2_000;
+
+		escribir("1");
+		escribir("sintetico");
+		esperar(() -> pantalla().contains("Buscando..."));
+		long inicio = System.nanoTime();
+		escribir("c");
+		esperar(() -> veces(pantalla(), "Seleccione una opción") == 2);
+
+		assertThat((System.nanoTime() - inicio) / 1_000_000).isLessThan(1_500);
+		assertThat(pantalla()).contains("Búsqueda cancelada.").doesNotContain("Título:");
+		// La respuesta que llega después no se muestra, pero se guarda para las próximas búsquedas
+		esperar(() -> libroRepository.count() == 4);
+	}
+
+	@Test
+	void listaLosLibrosPorPaginas() throws Exception {
+		List<Libro> libros = new ArrayList<>();
+		for (int i = 1; i <= 250; i++) {
+			libros.add(libro(String.format("Libro %03d", i), "Autor Paginado"));
+		}
+		libroRepository.saveAll(libros);
+
+		escribir("2");
+		esperar(() -> pantalla().contains("100 libros mostrados"));
+		assertThat(pantalla()).contains("Título: Libro 100").doesNotContain("Título: Libro 101");
+		escribir("");
+		esperar(() -> pantalla().contains("200 libros mostrados"));
+		escribir("q");
+		esperar(() -> veces(pantalla(), "Seleccione una opción") == 2);
+
+		assertThat(pantalla()).contains("Título: Libro 200").doesNotContain("Título: Libro 201");
+	}
+
+	private void escribir(String linea) throws IOException {
+		teclado.write((linea + "\n").getBytes(StandardCharsets.UTF_8));
+		teclado.flush();
+	}
+
+	private String pantalla() {
+		return pantalla.toString(StandardCharsets.UTF_8);
+	}
+
+	private static int veces(String texto, String buscado) {
+		int veces = 0;
+		for (int i = texto.indexOf(buscado); i >= 0; i = texto.indexOf(buscado, i + 1)) {
+			veces++;
+		}
+		return veces;
+	}
+
+	private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+		long limite = System.nanoTime() + 10_000_000_000L;
+		while (!condicion.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("tiempo de espera agotado").isLessThan(limite);
+			Thread.sleep(20);
+		}
+	}
+
+	private Libro libro(String titulo, String autor) {
+		Libro libro = new Libro();
+		libro.setTitulo(titulo);
+		libro.setAutores(new ArrayList<>(List.of(autorRepository.findByNombreIn(List.of(autor)).stream().findFirst()
+				.orElseGet(() -> autorRepository.save(new Autor(autor, null, null))))));
+		libro.setNumeroDescargas(0);
+		libro.setIdioma("en");
+		return libro;
+	}
+}
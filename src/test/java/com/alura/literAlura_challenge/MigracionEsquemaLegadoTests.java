@@ -0,0 +1,61 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+
+@SpringBootTest
+class MigracionEsquemaLegadoTests {
+
+	@Autowired
+	private MigracionEsquemaLegado migracion;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private LibroRepository libroRepository;
+
+	@Autowired
+	private AutorRepository autorRepository;
+
+	@Test
+	void convierteLasFilasAntiguasAlModeloTipado() {
+		libroRepository.deleteAllInBatch();
+		autorRepository.deleteAllInBatch();
+		jdbcTemplate.execute("ALTER TABLE libros ADD COLUMN autor VARCHAR(255)");
+		jdbcTemplate.execute("ALTER TABLE libros ADD COLUMN fecha_nacimiento VARCHAR(255)");
+		jdbcTemplate.execute("ALTER TABLE libros ADD COLUMN fecha_fallecimiento VARCHAR(255)");
+		jdbcTemplate.execute("ALTER TABLE libros ADD COLUMN numero_descargas VARCHAR(255)");
+		String insertar = "INSERT INTO libros (id, titulo, idioma, autor, fecha_nacimiento, fecha_fallecimiento, numero_descargas)"
+				+ " VALUES (?, ?, 'en', ?, ?, ?, ?)";
+		jdbcTemplate.update(insertar, 1, "Emma", "Austen, Jane", "1775", "1817", "1200");
+		jdbcTemplate.update(insertar, 2, "Persuasion", "Austen, Jane", "1775", "1817", "800");
+		jdbcTemplate.update(insertar, 3, "Beowulf", "Autor desconocido",
+				"Fecha de nacimiento no disponible", "Fecha de fallecimiento no disponible", "50");
+
+		migracion.migrar();
+
+		assertThat(autorRepository.count()).isEqualTo(1);
+		Autor austen = autorRepository.findAll().get(0);
+		assertThat(austen.getAnioNacimiento()).isEqualTo(1775);
+		assertThat(austen.getAnioFallecimiento()).isEqualTo(1817);
+		transactionTemplate.executeWithoutResult(estado -> {
+			List<Libro> libros = libroRepository.findAll();
+			assertThat(libros).extracting(Libro::getNumeroDescargas).containsExactlyInAnyOrder(1200, 800, 50);
+			assertThat(libroRepository.findById(3L).orElseThrow().getAutores()).isEmpty();
+			assertThat(libroRepository.findById(1L).orElseThrow().getAutorPrincipal().getNombre()).isEqualTo("Austen, Jane");
+		});
+		Integer columnasAntiguas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns"
+				+ " WHERE LOWER(table_name) = 'libros' AND LOWER(column_name) = 'autor'", Integer.class);
+		assertThat(columnasAntiguas).isZero();
+	}
+}
@@ -0,0 +1,113 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@SpringBootTest(properties = {
+		"literalura.refresco.habilitado=true",
+		"literalura.refresco.peticiones-por-minuto=3",
+		"literalura.refresco.espera-inicial=1h"})
+class RefrescoDescargasServiceTests {
+
+	private static final GutendexStub stub = new GutendexStub(1, 80);
+
+	@DynamicPropertySource
+	static void apiLocal(DynamicPropertyRegistry registro) {
+		registro.add("gutenberg.api.url", stub::url);
+	}
+
+	@Autowired
+	private RefrescoDescargasService refrescoDescargasService;
+
+	@Autowired
+	private LibroService libroService;
+
+	@Autowired
+	private IngestaLibrosService ingestaLibrosService;
+
+	@Autowired
+	private EstadisticasService estadisticasService;
+
+	@Autowired
+	private LibroRepository libroRepository;
+
+	@Autowired
+	private AutorRepository autorRepository;
+
+	@BeforeEach
+	void preparar() {
+		libroRepository.deleteAllInBatch();
+		autorRepository.deleteAllInBatch();
+		stub.reiniciarContadores();
+	}
+
+	@AfterAll
+	static void detenerStub() {
+		stub.close();
+	}
+
+	@Test
+	void escribeSoloLosLibrosCambiadosSinPasarDelPresupuesto() {
+		guardarCatalogoDelStub();
+		Map<Integer, Libro> antes = porGutenbergId();
+		assertThat(antes).hasSize(80);
+		long descargasAntes = estadisticasService.obtenerResumen(1).totalDescargas();
+		stub.reiniciarContadores();
+		stub.descargasCambiadas.put(5, 500);
+		stub.descargasCambiadas.put(70, 7000);
+
+		// 80 libros en lotes de 32: las 3 peticiones del presupuesto alcanzan para una vuelta completa
+		RefrescoDescargasService.ResultadoRefresco resultado = refrescoDescargasService.refrescar();
+
+		assertThat(resultado.peticiones()).isEqualTo(3);
+		assertThat(resultado.revisados()).isEqualTo(80);
+		assertThat(resultado.actualizados()).isEqualTo(2);
+		assertThat(stub.peticiones.get()).isEqualTo(3);
+		Map<Integer, Libro> despues = porGutenbergId();
+		assertThat(despues.get(5).getNumeroDescargas()).isEqualTo(500);
+		assertThat(despues.get(70).getNumeroDescargas()).isEqualTo(7000);
+		assertThat(despues.get(5).getActualizadoEn()).isAfter(antes.get(5).getActualizadoEn());
+		// Los que no cambiaron no se escribieron
+		assertThat(despues.get(6).getActualizadoEn()).isEqualTo(antes.get(6).getActualizadoEn());
+		assertThat(estadisticasService.obtenerResumen(1).totalDescargas())
+				.isEqualTo(descargasAntes + (500 - 5) + (7000 - 70));
+
+		// Sin presupuesto no se consulta la API hasta que se recargue
+		stub.descargasCambiadas.put(6, 600);
+		assertThat(refrescoDescargasService.refrescar().peticiones()).isZero();
+		assertThat(stub.peticiones.get()).isEqualTo(3);
+		assertThat(libroRepository.findById(despues.get(6).getId()).orElseThrow().getNumeroDescargas()).isEqualTo(6);
+	}
+
+	@Test
+	void ordenaLosLibrosPorAntiguedadDeSusDatos() {
+		guardarCatalogoDelStub();
+		Libro masViejo = porGutenbergId().get(40);
+		masViejo.setActualizadoEn(LocalDateTime.now().minusYears(1));
+		libroRepository.save(masViejo);
+
+		assertThat(libroRepository.listarParaRefrescar(LocalDateTime.now().plusSeconds(1), LocalDateTime.of(1970, 1, 1, 0, 0), 0,
+				Limit.of(1)))
+				.singleElement().extracting(LibroParaRefrescar::gutenbergId).isEqualTo(40);
+	}
+
+	private void guardarCatalogoDelStub() {
+		ingestaLibrosService.guardarNuevos(libroService.convertirAEntidades(libroService.obtenerPagina(1).libros()));
+	}
+
+	private Map<Integer, Libro> porGutenbergId() {
+		return libroRepository.findAll().stream().collect(Collectors.toMap(Libro::getGutenbergId, Function.identity()));
+	}
+}
@@ -0,0 +1,160 @@
+package com.alura.literAlura_challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mockingDetails;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Prueba las respuestas sobre un servidor real: la compresión la aplica Tomcat, no MockMvc
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RespuestasHttpTests {
+
+	@LocalServerPort
+	private int puerto;
+
+	@MockitoSpyBean
+	private LibroRepository libroRepository;
+
+	@Autowired
+	private AutorRepository autorRepository;
+
+	@Autowired
+	private IngestaLibrosService ingestaLibrosService;
+
+	@Autowired
+	private EstadisticasService estadisticasService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final HttpClient cliente = HttpClient.newHttpClient();
+
+	@BeforeEach
+	void preparar() {
+		libroRepository.deleteAllInBatch();
+		autorRepository.deleteAllInBatch();
+		List<Libro> libros = new ArrayList<>();
+		for (int i = 1; i <= 40; i++) {
+			libros.add(libro(i, "Libro de prueba número " + i));
+		}
+		ingestaLibrosService.guardarNuevos(libros);
+	}
+
+	@Test
+	void repetirElPedidoConElETagNoConsultaLaBD() throws Exception {
+		HttpResponse<byte[]> primera = pedir("/books?cursor=", null);
+		String etag = primera.headers().firstValue("ETag").orElseThrow();
+		assertThat(primera.statusCode()).isEqualTo(200);
+		assertThat(primera.headers().firstValue("Cache-Control")).hasValue("no-cache");
+
+		clearInvocations(libroRepository);
+		HttpResponse<byte[]> repetida = pedir("/books?cursor=", etag);
+		HttpResponse<byte[]> sinParametros = pedir("/books", etag);
+		HttpResponse<byte[]> catalogo = pedir("/books/catalogo", etag);
+		HttpResponse<byte[]> exportacion = pedir("/books/export", etag);
+
+		assertThat(List.of(repetida, sinParametros, catalogo, exportacion)).allSatisfy(respuesta -> {
+			assertThat(respuesta.statusCode()).isEqualTo(304);
+			assertThat(respuesta.body()).isEmpty();
+		});
+		assertThat(mockingDetails(libroRepository).getInvocations()).isEmpty();
+	}
+
+	@Test
+	void laIngestaCambiaElETag() throws Exception {
+		String etag = pedir("/books?cursor=", null).headers().firstValue("ETag").orElseThrow();
+
+		ingestaLibrosService.guardarNuevos(List.of(libro(41, "Libro nuevo")));
+		HttpResponse<byte[]> respuesta = pedir("/books/catalogo?size=100", etag);
+
+		assertThat(respuesta.statusCode()).isEqualTo(200);
+		assertThat(respuesta.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+		assertThat(texto(respuesta)).contains("Libro nuevo");
+	}
+
+	@Test
+	void elETagEsFuerteYSaleDeLaVersionGuardada() throws Exception {
+		long version = jdbcTemplate.queryForObject("SELECT valor FROM estadisticas_catalogo WHERE id = ?", Long.class,
+				VersionCatalogo.ID);
+
+		HttpResponse<byte[]> comprimida = pedir("/books", null);
+		HttpResponse<byte[]> sinComprimir = pedir("/books", null, "identity");
+
+		assertThat(comprimida.headers().firstValue("ETag")).hasValue("\"" + version + "-gzip\"");
+		assertThat(sinComprimir.headers().firstValue("ETag")).hasValue("\"" + version + "\"");
+		assertThat(sinComprimir.headers().firstValue("Content-Encoding")).isEmpty();
+		assertThat(texto(sinComprimir)).isEqualTo(texto(comprimida)).contains("Libro de prueba número 1\"");
+
+		// Recalcular no puede reconstruir la versión: la conserva y avanza
+		estadisticasService.recalcular();
+		assertThat(pedir("/books", null).headers().firstValue("ETag")).hasValue("\"" + (version + 1) + "-gzip\"");
+	}
+
+	@Test
+	void comprimeLasRespuestasConGzip() throws Exception {
+		List<HttpResponse<byte[]>> respuestas = List.of(pedir("/books?cursor=", null), pedir("/books?search=prueba", null));
+
+		assertThat(respuestas).allSatisfy(respuesta -> {
+			assertThat(respuesta.headers().firstValue("Content-Encoding")).hasValue("gzip");
+			String json = texto(respuesta);
+			assertThat(json).contains("Libro de prueba número 1\"");
+			assertThat(respuesta.body().length).isLessThan(json.getBytes(StandardCharsets.UTF_8).length / 2);
+		});
+		HttpResponse<byte[]> exportacion = pedir("/books/export", null);
+		assertThat(exportacion.headers().firstValue("Content-Encoding")).hasValue("gzip");
+		assertThat(texto(exportacion).lines()).hasSize(40);
+	}
+
+	private HttpResponse<byte[]> pedir(String ruta, String ifNoneMatch) throws IOException, InterruptedException {
+		return pedir(ruta, ifNoneMatch, "gzip");
+	}
+
+	private HttpResponse<byte[]> pedir(String ruta, String ifNoneMatch, String acceptEncoding)
+			throws IOException, InterruptedException {
+		HttpRequest.Builder pedido = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+				.header("Accept-Encoding", acceptEncoding);
+		if (ifNoneMatch != null) {
+			pedido.header("If-None-Match", ifNoneMatch);
+		}
+		return cliente.send(pedido.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private static String texto(HttpResponse<byte[]> respuesta) throws IOException {
+		if (!"gzip".equals(respuesta.headers().firstValue("Content-Encoding").orElse(null))) {
+			return new String(respuesta.body(), StandardCharsets.UTF_8);
+		}
+		try (InputStream descomprimido = new GZIPInputStream(new ByteArrayInputStream(respuesta.body()))) {
+			return new String(descomprimido.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static Libro libro(int gutenbergId, String titulo) {
+		Libro libro = new Libro();
+		libro.setGutenbergId(gutenbergId);
+		libro.setTitulo(titulo);
+		libro.setAutores(new ArrayList<>(List.of(new Autor("Autor de prueba", 1800, 1870))));
+		libro.setNumeroDescargas(gutenbergId);
+		libro.setIdioma("es");
+		return libro;
+	}
+}
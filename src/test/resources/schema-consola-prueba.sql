@@ -0,0 +1,2 @@
+-- Solo para ArranqueConsolaTests: si el script corre, queda la tabla (y las de Hibernate ya existen)
+CREATE TABLE IF NOT EXISTS esquema_inicializado AS SELECT COUNT(*) AS autores FROM autores;